@@ -0,0 +1,76 @@
+package pacMan;
+
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Active rendering path. Instead of asking Swing to repaint and waiting for
+ * the event thread to get around to it, a dedicated render thread composes
+ * every frame with PacManBoard.composeFrame into a triple-buffered Canvas and
+ * presents it on a fixed 60 Hz schedule.
+ */
+public class ActiveRenderer implements Runnable {
+
+	private static final long FRAME_NANOS = 1000000000L / 60;
+
+	private final PacManBoard pacman_board;
+	private final Canvas canvas = new Canvas();
+	private BufferStrategy strategy;
+	private volatile boolean running;
+
+	public ActiveRenderer(PacManBoard pacman_board) {
+		this.pacman_board = pacman_board;
+		canvas.setIgnoreRepaint(true);
+	}
+
+	public Canvas getCanvas() {
+		return canvas;
+	}
+
+	// Must be called after the canvas has been added to a visible frame.
+	public void start() {
+		canvas.createBufferStrategy(3);
+		strategy = canvas.getBufferStrategy();
+		running = true;
+
+		Thread thread = new Thread(this, "PacMan render loop");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public void stop() {
+		running = false;
+	}
+
+	public void run() {
+		long next_frame = System.nanoTime();
+		while (running) {
+			renderFrame();
+
+			next_frame += FRAME_NANOS;
+			long wait = next_frame - System.nanoTime();
+			if (wait > 0)
+				LockSupport.parkNanos(wait);
+			else if (wait < -FRAME_NANOS)
+				next_frame = System.nanoTime(); // Fell more than a frame behind, so start a new schedule.
+		}
+	}
+
+	private void renderFrame() {
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+				g.setColor(PacManBoard.getBackgroundColor());
+				g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+				pacman_board.composeFrame(g);
+				g.dispose();
+			} while (strategy.contentsRestored());
+			strategy.show();
+		} while (strategy.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+	}
+
+}
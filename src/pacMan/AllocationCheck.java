@@ -0,0 +1,117 @@
+package pacMan;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Checks that playing a game allocates nothing once it is under way, so many
+ * games can be stepped without feeding the garbage collector:
+ *
+ * java pacMan.AllocationCheck [rounds]
+ *
+ * Positions are saved from a game played with random input, then the ghosts'
+ * decisions (Ghost.makeMove) and whole ticks (GameState.step) are run from
+ * each of them, restoring the position with copyFrom() in between. The bytes
+ * the thread allocates while doing so are read from the JVM, and the check
+ * fails unless both come to 0. Starting a level does allocate, so only
+ * positions in the middle of play are used.
+ */
+public class AllocationCheck {
+
+	private static final int POSITIONS = 200;
+
+	private final com.sun.management.ThreadMXBean threads;
+	private final long thread_id = Thread.currentThread().getId();
+	private final List<GameState> positions = new ArrayList<>();
+	private final GameState game;
+
+	public AllocationCheck(List<String> board) throws IOException {
+		threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		// Copies of play are silent too.
+		GameState play = new GameState(board);
+		play.setSound(false);
+		play.reset();
+		SplittableRandom random = new SplittableRandom(0);
+		int direction = GameState.LEFT;
+		while (positions.size() < POSITIONS) {
+			if (random.nextInt(8) == 0)
+				direction = random.nextInt(4);
+			if (play.getPhase() == GameState.Phase.FINISHED)
+				play.reset();
+			else
+				play.step(direction);
+			if (play.getPhase() == GameState.Phase.PLAYING && random.nextInt(20) == 0)
+				positions.add(play.copy());
+		}
+		game = positions.get(0).copy();
+	}
+
+	// Makes every ghost decide its next move from every position.
+	private void decide() {
+		for (int i = 0; i < positions.size(); i++) {
+			game.copyFrom(positions.get(i));
+			Ghost[] ghosts = game.getGhosts();
+			for (int g = 0; g < ghosts.length; g++) {
+				ghosts[g].makeMove(game.getPacMan());
+			}
+		}
+	}
+
+	// Plays a few ticks on from every position.
+	private void step() throws IOException {
+		for (int i = 0; i < positions.size(); i++) {
+			game.copyFrom(positions.get(i));
+			for (int tick = 0; tick < 10; tick++) {
+				game.step(tick % 4);
+			}
+		}
+	}
+
+	private interface Work {
+		void run() throws IOException;
+	}
+
+	// The fewest bytes allocated by rounds runs of work, out of a few tries after
+	// the same number of runs to warm up. The JIT can allocate a few hundred
+	// bytes on this thread the first time it swaps in compiled code, but
+	// anything the game itself allocates shows up in every try.
+	private long measure(Work work, int rounds) throws IOException {
+		for (int i = 0; i < rounds; i++) {
+			work.run();
+		}
+		long fewest = Long.MAX_VALUE;
+		for (int attempt = 0; attempt < 3; attempt++) {
+			long start = threads.getThreadAllocatedBytes(thread_id);
+			long overhead = threads.getThreadAllocatedBytes(thread_id) - start;
+			start = threads.getThreadAllocatedBytes(thread_id);
+			for (int i = 0; i < rounds; i++) {
+				work.run();
+			}
+			fewest = Math.min(fewest, threads.getThreadAllocatedBytes(thread_id) - start - overhead);
+		}
+		return fewest;
+	}
+
+	public static void main(String[] args) throws IOException {
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+		AllocationCheck check = new AllocationCheck(GameState.readBoard("textBoard.txt"));
+		long decisions = check.measure(check::decide, rounds);
+		long ticks = check.measure(check::step, rounds);
+		System.out.println(String.format("Ghost.makeMove: %d bytes over %d calls", decisions,
+				(long) rounds * POSITIONS * 4));
+		System.out.println(String.format("GameState.step: %d bytes over %d ticks", ticks,
+				(long) rounds * POSITIONS * 10));
+		if (decisions != 0 || ticks != 0) {
+			System.out.println("FAILED: playing a game allocated memory");
+			System.exit(1);
+		}
+		System.out.println("OK");
+	}
+
+}
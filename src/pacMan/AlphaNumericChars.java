@@ -1,25 +1,26 @@
 package pacMan;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
 
-import javax.imageio.ImageIO;
-
+/*
+ * The glyph atlas: alphaNumCharsSpriteSheet.png cut into 6 colour rows of 39
+ * characters. There is only one atlas per process, shared by everything that
+ * draws text.
+ */
 public class AlphaNumericChars {
-	public BufferedImage[][] alphaNumImages = new BufferedImage[6][39];
+	private static AlphaNumericChars atlas;
+	
+	public final BufferedImage[][] alphaNumImages;
+	
+	private AlphaNumericChars() throws IOException {
+		alphaNumImages = Animator.getSpriteSheet("images/alphaNumCharsSpriteSheet.png", 6, 39);
+	}
 	
-	public AlphaNumericChars(PacManBoard pacman_board) throws IOException {
-		File imgFile = new File("images/alphaNumCharsSpriteSheet.png");
-		BufferedImage spriteSheet = ImageIO.read(imgFile);
-		int sprite_width = spriteSheet.getWidth(pacman_board) / 39;
-		int sprite_height = spriteSheet.getHeight(pacman_board) / 6;
-		
-		for (int i = 0; i < 6; i++) {
-			for (int j = 0; j < 39; j++) {
-				alphaNumImages[i][j] = spriteSheet.getSubimage(j * sprite_width, i * sprite_height, sprite_width, sprite_height);
-			}
-		}
+	public static synchronized AlphaNumericChars getAtlas() throws IOException {
+		if (atlas == null)
+			atlas = new AlphaNumericChars();
+		return atlas;
 	}
 	
 }
@@ -2,10 +2,11 @@ package pacMan;
 
 import java.awt.Graphics;
 import java.awt.Image;
-import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.imageio.ImageIO;
 
@@ -15,54 +16,74 @@ import javax.imageio.ImageIO;
  * @author Ben Original animator class. Includes methods to generate animations
  *         and sprite sheet animations by returning the appropriate image each
  *         time the function is called.
+ * 
+ *         Sprite sheets are decoded and cut into sprites once, then kept in a
+ *         shared cache. A clip is one row of a sprite sheet, played back by
+ *         frame index.
  */
 public class Animator {
 
-	private int frame = 0;
-
-	public Image generateAnimation(int frame_gap, String[] filenames) {
-		int num_images = filenames.length;
-		int animation_length = num_images * frame_gap;
+	private static final Map<String, BufferedImage[][]> sprite_sheets = new HashMap<>();
 
-		Image character = Toolkit.getDefaultToolkit().getImage(filenames[frame / frame_gap]);
+	private final FrameCounter counter = new FrameCounter();
 
-		frame++;
-		if (frame == animation_length)
-			frame = 0;
+	public Image generateAnimation(int frame_gap, String[] filenames) {
+		return Sprites.get(filenames[nextFrame(frame_gap, filenames.length)]);
+	}
 
-		return character;
+	// Returns the index of the image to show, holding each of num_images for
+	// frame_gap frames, and advances the animation.
+	public int nextFrame(int frame_gap, int num_images) {
+		return counter.nextFrame(frame_gap, num_images);
 	}
 
 	public Image generateSpriteAnimation(int frame_gap, int num_sprites, String filename, PacManBoard pacman_board)
 			throws IOException {
-		File imgFile = new File(filename);
-		BufferedImage spriteSheet = ImageIO.read(imgFile);
-		int sprite_width = spriteSheet.getWidth(pacman_board) / num_sprites;
-		int sprite_height = spriteSheet.getHeight(pacman_board);
-
-		Image character;
-		Image[] sprites = new Image[num_sprites];
-
-		for (int i = 0; i < num_sprites; i++) {
-			sprites[i] = spriteSheet.getSubimage(i * sprite_width, 0, sprite_width, sprite_height);
-		}
+		return playClip(frame_gap, getClip(filename, num_sprites));
+	}
 
-		character = spriteAnimatorHelper(frame_gap, sprites);
+	// Returns the next sprite of a clip, holding each sprite for frame_gap frames.
+	public Image playClip(int frame_gap, Image[] clip) {
+		return spriteAnimatorHelper(frame_gap, clip);
+	}
 
-		return character;
+	// Returns the sprite shown at frame_index of a clip.
+	public static Image getClipFrame(Image[] clip, int frame_gap, int frame_index) {
+		return clip[(frame_index / frame_gap) % clip.length];
 	}
 
-	public Image spriteAnimatorHelper(int frame_gap, Image[] sprites) {
-		int num_images = sprites.length;
-		int animation_length = num_images * frame_gap;
+	// A clip is a sprite sheet with all of its sprites in a single row.
+	public static BufferedImage[] getClip(String filename, int num_sprites) throws IOException {
+		return getSpriteSheet(filename, 1, num_sprites)[0];
+	}
 
-		Image character = sprites[frame / frame_gap];
+	// Decodes a sprite sheet and cuts it into rows x columns sprites, each scaled
+	// to its size on screen. The sheet is only read from disk the first time it
+	// is asked for.
+	public static synchronized BufferedImage[][] getSpriteSheet(String filename, int rows, int columns)
+			throws IOException {
+		BufferedImage[][] sprites = sprite_sheets.get(filename);
+		if (sprites != null && sprites.length == rows && sprites[0].length == columns)
+			return sprites;
+
+		BufferedImage spriteSheet = ImageIO.read(new File(filename));
+		int sprite_width = spriteSheet.getWidth() / columns;
+		int sprite_height = spriteSheet.getHeight() / rows;
+
+		sprites = new BufferedImage[rows][columns];
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				sprites[i][j] = Sprites.scale(spriteSheet.getSubimage(j * sprite_width, i * sprite_height,
+						sprite_width, sprite_height));
+			}
+		}
+		sprite_sheets.put(filename, sprites);
 
-		frame++;
-		if (frame == animation_length)
-			frame = 0;
+		return sprites;
+	}
 
-		return character;
+	public Image spriteAnimatorHelper(int frame_gap, Image[] sprites) {
+		return sprites[nextFrame(frame_gap, sprites.length)];
 	}
 
 }
@@ -8,6 +8,11 @@ import sun.audio.*;
 
 public class Audio {
 	
+	// Run with -Dpacman.audio=false to play silently. Sounds are then never
+	// loaded, which matters when games are run faster than real time. A single
+	// game can be kept quiet with GameState.setSound(false) instead.
+	public static final boolean enabled = Boolean.parseBoolean(System.getProperty("pacman.audio", "true"));
+	
 	private String chomp = "audio_files/pacman_chomp.wav";
 	private String start = "audio_files/pacman_beginning.wav";
 	private String die = "audio_files/pacman_death.wav";
@@ -22,6 +27,8 @@ public class Audio {
 	private AudioStream audioStreamMunch;
 	
 	public Audio() throws IOException {
+		if (!enabled)
+			return;
 		in = new FileInputStream(chomp);
 		inStart = new FileInputStream(start);
 		inDie = new FileInputStream(die); 
@@ -33,19 +40,46 @@ public class Audio {
 	}  
 
 	public void dotCaptureSound() {
-	    AudioPlayer.player.start(audioStream);
+		if (audioStream != null)
+			AudioPlayer.player.start(audioStream);
 	}
 	
 	public void startSound() {
-		AudioPlayer.player.start(audioStreamStart);
+		if (audioStreamStart != null)
+			AudioPlayer.player.start(audioStreamStart);
 	}
 	
 	public void dieSound() {
-		AudioPlayer.player.start(audioStreamDie);
+		if (audioStreamDie != null)
+			AudioPlayer.player.start(audioStreamDie);
 	}
 	
 	public void munchSound() {
-		AudioPlayer.player.start(audioStreamMunch);
+		if (audioStreamMunch != null)
+			AudioPlayer.player.start(audioStreamMunch);
+	}
+	
+	// The game plays its sounds through these, which do nothing at all, not even
+	// open the sound files, while audio is off. A stream only plays once, so
+	// with audio on each sound still opens its files again.
+	public static void playDotCapture() throws IOException {
+		if (enabled)
+			new Audio().dotCaptureSound();
+	}
+	
+	public static void playStart() throws IOException {
+		if (enabled)
+			new Audio().startSound();
+	}
+	
+	public static void playDie() throws IOException {
+		if (enabled)
+			new Audio().dieSound();
+	}
+	
+	public static void playMunch() throws IOException {
+		if (enabled)
+			new Audio().munchSound();
 	}
 	
 }
@@ -0,0 +1,231 @@
+package pacMan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Holds many independent games and steps all of them with one call, spread
+ * over the cores by a ForkJoinPool. Meant for training agents, so nothing is
+ * drawn and the games are made silent, without muting any other game.
+ *
+ * Each call to step() takes one action per game, one of GameState.UP, DOWN,
+ * LEFT or RIGHT, and fills in three arrays that are allocated once and reused
+ * for every step:
+ *
+ * rewards - the points scored by each game during the step
+ * dones - true for the games whose episode ended during the step
+ * observations - OBSERVATION_SIZE ints per game, laid out as described below
+ *
+ * An episode ends when PacMan loses his last life. That game is reset straight
+ * away, so its observation is already the start of the next episode. Winning a
+ * level does not end the episode: the next level is started with the score and
+ * lives carried over. The READY, WON and RESTARTING phases do not take any
+ * input, so they are played out inside step() and an agent only ever sees a
+ * game that is being played.
+ *
+ * Every game has its own GameState; the only thing they share is the layout of
+ * the maze, which is never written. Games can be stepped at the same time on
+ * different threads for that reason. TickProfiler keeps one set of figures for
+ * the whole program, so the games in a batch are never profiled.
+ */
+public class BatchEnvironment {
+
+	// Where each figure is in a game's slice of the observations array.
+	public static final int PACMAN_X = 0;
+	public static final int PACMAN_Y = 1;
+	public static final int PACMAN_DX = 2;
+	public static final int PACMAN_DY = 3;
+	// Each ghost then has GHOST_SIZE ints, in the order Blinky, Pinky, Inky,
+	// Clyde: x, y, Ghost.State ordinal and Ghost.HomeState ordinal.
+	public static final int GHOSTS = 4;
+	public static final int GHOST_SIZE = 4;
+	public static final int LIVES = GHOSTS + 4 * GHOST_SIZE;
+	public static final int DOTS = LIVES + 1;
+	public static final int SCORE = DOTS + 1;
+	public static final int OBSERVATION_SIZE = SCORE + 1;
+
+	private final GameState[] games;
+	private final ForkJoinPool pool;
+	// Games stepped by one task. Small enough that there are a few tasks for
+	// each thread to steal, big enough that the tasks cost little to make.
+	private final int grain;
+
+	private int[] actions;
+	private final int[] rewards;
+	private final boolean[] dones;
+	private final int[] observations;
+
+	public BatchEnvironment(List<String> board, int size) throws IOException {
+		this(board, size, ForkJoinPool.commonPool());
+	}
+
+	public BatchEnvironment(List<String> board, int size, ForkJoinPool pool) throws IOException {
+		this(TyleBoard.parse(board), size, pool);
+	}
+
+	// Every game plays on a copy of maze.
+	public BatchEnvironment(TyleBoard maze, int size, ForkJoinPool pool) throws IOException {
+		this.pool = pool;
+		this.grain = Math.max(1, size / (pool.getParallelism() * 8));
+		games = new GameState[size];
+		for (int i = 0; i < size; i++) {
+			games[i] = new GameState(maze);
+			games[i].setSound(false);
+			games[i].setProfiled(false);
+		}
+		rewards = new int[size];
+		dones = new boolean[size];
+		observations = new int[size * OBSERVATION_SIZE];
+		reset();
+	}
+
+	// Starts a new episode in every game.
+	public void reset() throws IOException {
+		for (int i = 0; i < games.length; i++) {
+			games[i].reset();
+			playUntilInput(games[i]);
+			rewards[i] = 0;
+			dones[i] = false;
+			observe(i);
+		}
+	}
+
+	/**
+	 * Moves every game on by one tick.
+	 * @param actions one direction for each game, by index
+	 */
+	public void step(int[] actions) {
+		if (actions.length != games.length)
+			throw new IllegalArgumentException("Expected " + games.length + " actions, got " + actions.length);
+		this.actions = actions;
+		pool.invoke(new StepGames(0, games.length));
+	}
+
+	private class StepGames extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int from;
+		private final int to;
+
+		StepGames(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if (to - from <= grain) {
+				for (int i = from; i < to; i++) {
+					stepGame(i);
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new StepGames(from, middle), new StepGames(middle, to));
+			}
+		}
+	}
+
+	private void stepGame(int i) {
+		GameState game = games[i];
+		int score = game.getScore();
+		try {
+			game.step(actions[i]);
+			rewards[i] = game.getScore() - score;
+			dones[i] = game.getPhase() == GameState.Phase.GAME_OVER;
+			if (dones[i])
+				game.reset();
+			playUntilInput(game);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		observe(i);
+	}
+
+	// Plays out the phases that ignore the player, starting the next level after
+	// a win, until PacMan can be steered again.
+	private static void playUntilInput(GameState game) throws IOException {
+		while (game.getPhase() != GameState.Phase.PLAYING) {
+			if (game.getPhase() == GameState.Phase.FINISHED)
+				game.startLevel();
+			else
+				game.step(GameState.LEFT);
+		}
+	}
+
+	private void observe(int i) {
+		GameState game = games[i];
+		int offset = i * OBSERVATION_SIZE;
+		PacMan pacman = game.getPacMan();
+		observations[offset + PACMAN_X] = pacman.getX();
+		observations[offset + PACMAN_Y] = pacman.getY();
+		observations[offset + PACMAN_DX] = pacman.getDeltaX();
+		observations[offset + PACMAN_DY] = pacman.getDeltaY();
+
+		Ghost[] ghosts = game.getGhosts();
+		for (int g = 0; g < ghosts.length; g++) {
+			int ghost = offset + GHOSTS + g * GHOST_SIZE;
+			observations[ghost] = ghosts[g].getX();
+			observations[ghost + 1] = ghosts[g].getY();
+			observations[ghost + 2] = ghosts[g].getState().ordinal();
+			observations[ghost + 3] = ghosts[g].getHomeState().ordinal();
+		}
+
+		observations[offset + LIVES] = game.getLives();
+		observations[offset + DOTS] = game.getDotsRemaining();
+		observations[offset + SCORE] = game.getScore();
+	}
+
+	public int size() {
+		return games.length;
+	}
+
+	// The game itself, for observing more than the observations array holds.
+	public GameState getGame(int i) {
+		return games[i];
+	}
+
+	public int[] getRewards() {
+		return rewards;
+	}
+
+	public boolean[] getDones() {
+		return dones;
+	}
+
+	public int[] getObservations() {
+		return observations;
+	}
+
+	// Measures how many steps a second a batch manages with random actions:
+	// java pacMan.BatchEnvironment [games] [seconds]
+	public static void main(String[] args) throws IOException {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 4096;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		BatchEnvironment batch = new BatchEnvironment(TyleBoard.load("textBoard.txt"), size, ForkJoinPool.commonPool());
+		SplittableRandom random = new SplittableRandom(0);
+		int[] actions = new int[size];
+		long episodes = 0;
+		long steps = 0;
+		long start = System.nanoTime();
+		long end = start + seconds * 1000000000L;
+		while (System.nanoTime() < end) {
+			for (int i = 0; i < size; i++) {
+				if (random.nextInt(8) == 0)
+					actions[i] = random.nextInt(4);
+			}
+			batch.step(actions);
+			for (int i = 0; i < size; i++) {
+				if (batch.dones[i])
+					episodes++;
+			}
+			steps += size;
+		}
+		double elapsed = (System.nanoTime() - start) / 1e9;
+		System.out.println(String.format("%d games on %d threads: %.0f steps/s, %d episodes finished", size,
+				batch.pool.getParallelism(), steps / elapsed, episodes));
+	}
+
+}
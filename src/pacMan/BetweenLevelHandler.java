@@ -3,19 +3,17 @@ package pacMan;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Image;
-import java.awt.Toolkit;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 
-import pacMan.TyleContainer.Tyle;
 
 public class BetweenLevelHandler {
 	
 	private PacManBoard pacman_board;
 	private ScoreBoard scoreBoard;
-	private Image READY = Toolkit.getDefaultToolkit().getImage("images_between_levels/READY!.png");
-	private Image GAME_OVER = Toolkit.getDefaultToolkit().getImage("images_between_levels/GAME_OVER.png");
+	private Image READY = Sprites.get("images_between_levels/READY!.png");
+	private Image GAME_OVER = Sprites.get("images_between_levels/GAME_OVER.png");
 	
 	private boolean game_over;
 	private boolean show_score_board;
@@ -25,64 +23,68 @@ public class BetweenLevelHandler {
 	
 	public int ready_frame = 0;
 	
-	private Tyle[][] tyleBoard;
+	private TyleBoard tyleBoard;
 	
-	public BetweenLevelHandler(Tyle[][] tyleBoard, PacManBoard pacman_board) throws IOException {
+	// score_board is kept for the whole run and redrawn after each game over.
+	public BetweenLevelHandler(TyleBoard tyleBoard, PacManBoard pacman_board, ScoreBoard score_board) throws IOException {
 		this.tyleBoard = tyleBoard;
 		setReadyLocation();
 		this.pacman_board = pacman_board;
+		this.scoreBoard = score_board;
 	}
 	
-	public void flashPanelAfterWin() {
-		for (int i = 0; i < 120; i++) {
-			if ((i / 20) % 2 == 0)
-				PacManBoard.frame.setBackground(Color.WHITE);
-			else
-				PacManBoard.frame.setBackground(Color.BLUE);
-			PacManBoard.sleep();
+	// Called after every tick to show what the phase of the game calls for.
+	public void update(GameState game_state) {
+		int tick = game_state.getPhaseTick();
+		ready = false;
+		game_over = false;
+		show_score_board = false;
+
+		switch (game_state.getPhase()) {
+		case READY:
+			updateReady(tick);
+			break;
+		case WON:
+			updateWinFlash(tick);
+			break;
+		case GAME_OVER:
+			updateGameOver(tick);
+			break;
+		default:
+			break;
 		}
 	}
 	
-	public void flashReady() {
-		for (int i = 0; i < 60; i++) {
+	private void updateWinFlash(int tick) {
+		if ((tick / 20) % 2 == 0)
+			PacManBoard.setBackgroundColor(Color.WHITE);
+		else
+			PacManBoard.setBackgroundColor(Color.BLUE);
+	}
+	
+	// A second of nothing, READY! for a second and a half, then two seconds of
+	// READY! flashing.
+	private void updateReady(int tick) {
+		if (tick < 60)
 			ready = false;
-			PacManBoard.sleep();
-		}
-		for (int i = 0; i < 90; i++) {
+		else if (tick < 150)
 			ready = true;
-			PacManBoard.frame.repaint();
-			PacManBoard.sleep();
-		}
-		for (int i = 0; i < 120; i++) {
-			if ((i / 20) % 2 == 0)
-				ready = true;
-			else
-				ready = false;
-			PacManBoard.frame.repaint();
-			PacManBoard.sleep();
-		}
+		else
+			ready = ((tick - 150) / 20) % 2 == 0;
 	}
 	
-	public void doGameOver(InPlayScoreBoard inPlayScoreBoard) throws IOException {
-		inPlayScoreBoard.updateHighScores();
-		scoreBoard = new ScoreBoard(pacman_board);
-		for (int i = 0; i < 90; i++) {
-			game_over = true;
-			PacManBoard.frame.repaint();
-			PacManBoard.sleep();
-		}
-		show_score_board = true;
-		for (int i = 0; i < 600; i++) {
-			PacManBoard.frame.repaint();
-			PacManBoard.sleep();
-		}
-		show_score_board = false;
-		game_over = false;
-		PacManBoard.totalScore = 0;
-		PacManBoard.lives = 0;
+	public void startGameOver(InPlayScoreBoard inPlayScoreBoard, int score) throws IOException {
+		inPlayScoreBoard.updateHighScores(score);
+		scoreBoard.refresh();
 	}
 	
-	public void drawScoreBoard(Graphics g) throws IOException {
+	// GAME OVER on its own for a second and a half, then the score board.
+	private void updateGameOver(int tick) {
+		game_over = true;
+		show_score_board = tick >= 90;
+	}
+	
+	public void drawScoreBoard(Graphics g) {
 		if (show_score_board)
 			scoreBoard.drawScoreBoard(g);
 	} 
@@ -90,32 +92,25 @@ public class BetweenLevelHandler {
 	public void drawREADY(Graphics g) {
 		int width = READY.getWidth(pacman_board);
 		int height = READY.getHeight(pacman_board);
-		int xplus = -(width / 2 - PacManBoard.dimension) / 2;
-		int yplus = -(height / 2 - PacManBoard.dimension) / 2;
+		int xplus = -(width - PacManBoard.screenDimension) / 2;
+		int yplus = -(height - PacManBoard.screenDimension) / 2;
 		if (ready)
-			g.drawImage(READY, readyX + xplus, readyY + yplus, width / 2, height / 2, pacman_board);
+			g.drawImage(READY, readyX * PacManBoard.scale + xplus, readyY * PacManBoard.scale + yplus, pacman_board);
 	} 
 	
 	public void drawGameOver(Graphics g) {
 		int width = GAME_OVER.getWidth(pacman_board);
 		int height = GAME_OVER.getHeight(pacman_board);
-		int xplus = -(width / 2 - PacManBoard.dimension) / 2;
-		int yplus = -(height / 2 - PacManBoard.dimension) / 2;
+		int xplus = -(width - PacManBoard.screenDimension) / 2;
+		int yplus = -(height - PacManBoard.screenDimension) / 2;
 		if (game_over)
-			g.drawImage(GAME_OVER, readyX + xplus, readyY + yplus, width / 2, height / 2, pacman_board);
+			g.drawImage(GAME_OVER, readyX * PacManBoard.scale + xplus, readyY * PacManBoard.scale + yplus, pacman_board);
 	} 
 	
 	public void setReadyLocation() {
-		int rows = tyleBoard.length;
-		int columns = tyleBoard[0].length;
-		for (int i = 0; i < rows; i++) {
-			for (int j = 0; j < columns; j++) {
-				if (tyleBoard[i][j] == Tyle.GHOST_WALL_TOP_LEFT) {
-					readyX = j * PacManBoard.dimension + 3 * PacManBoard.dimension + PacManBoard.dimension / 2;
-					readyY = i * PacManBoard.dimension + 5 * PacManBoard.dimension;
-				}
-			}
-		}
+		MazeIndex index = tyleBoard.getIndex();
+		readyX = index.getGhostHouseX() + 3 * PacManBoard.dimension + PacManBoard.dimension / 2;
+		readyY = index.getGhostHouseY() + 5 * PacManBoard.dimension;
 	}
 	
 	
@@ -1,40 +1,30 @@
 package pacMan;
 
 import pacMan.Ghost.HomeState;
-import pacMan.TyleContainer.Tyle;
 
 public class Blinky extends Ghost {
 
-	public Blinky(Tyle[][] tyle_board) {
+	public Blinky(TyleBoard tyle_board) {
 		super(GhostName.BLINKY, State.DEFAULT, tyle_board, TargetingState.SCATTER, HomeState.IS_EXITING, 0);
 	}
 	
 	public void updateAttackTarget(PacMan pacman) {
-		setAttackTarget(new int[] {pacman.getX(), pacman.getY()});
+		setAttackTarget(pacman.getX(), pacman.getY());
 	}
 	
 	public void updateScatterTarget() {
-		setScatterTarget(new int[] {432, 0});
+		setScatterTarget(432, 0);
 	}
 	
 	public void setSpawnLocation() {
-		Tyle[][] tyleBoard = getTyleBoard();
-		int rows = tyleBoard.length;
-		int columns = tyleBoard[0].length;
-		for (int i = 0; i < rows; i++) {
-			for (int j = 0; j < columns; j++) {
-				if (tyleBoard[i][j] == Tyle.GHOST_WALL_TOP_LEFT) {
-					spawnX = j * PacManBoard.dimension + 3 * PacManBoard.dimension + PacManBoard.dimension / 2;
-					spawnY = i * PacManBoard.dimension - PacManBoard.dimension;
-					setExitX(spawnX);
-					setExitY(spawnY);
-					int[] target = new int[2];
-					target[0] = j * PacManBoard.dimension + 3 * PacManBoard.dimension;
-					target[1] = i * PacManBoard.dimension + 2 * PacManBoard.dimension;
-					setHomeTarget(target);
-				}
-			}
-		}
+		MazeIndex index = getTyleBoard().getIndex();
+		int house_x = index.getGhostHouseX();
+		int house_y = index.getGhostHouseY();
+		spawnX = house_x + 3 * GameState.dimension + GameState.dimension / 2;
+		spawnY = house_y - GameState.dimension;
+		setExitX(spawnX);
+		setExitY(spawnY);
+		setHomeTarget(index.getGhostHomeX(), index.getGhostHomeY());
 	}
 
 	public void resetGhost() {
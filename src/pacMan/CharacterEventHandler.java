@@ -1,13 +1,10 @@
 package pacMan;
 import java.io.IOException;
-import java.util.Date;
-import java.util.Timer;
 
 import pacMan.Ghost.DotCounterState;
 import pacMan.Ghost.HomeState;
 import pacMan.Ghost.TargetingState;
 import pacMan.Ghost.Visibility;
-import pacMan.TyleContainer.Tyle;
 import pacMan.TyleContainer.TyleType;
 
 
@@ -20,10 +17,7 @@ public class CharacterEventHandler {
 	private final int frames_per_cycle;
 	
 	
-	private long time_at_start;
-	private long time_at_end;
-	
-	private long total_time = 0;
+	private long total_ticks = 0;
 
 	private PacMan pacman;
 	private Ghost[] ghosts;
@@ -39,27 +33,58 @@ public class CharacterEventHandler {
 	private int[] ghost_frames_passed = {0, 0, 0, 0};
 	private int[] curGhost_speed_percent = {0, 0, 0, 0};
 	
+	private final TickScheduler scheduler = new TickScheduler();
 	private DotTimer dotTimer;
 	private GhostStateHandler ghostStateHandler;
 		
 	private int[] globat_dot_limit = {0, 7, 17, 32};
 	
-	private Tyle[][] tyle_board;
+	// Ticks since PacMan was caught, or -1 while he is alive. The dying
+	// animation is played out one tick at a time by playDeath().
+	private static final int DEATH_PAUSE_TICKS = 30;
+	private static final int DEATH_ANIMATION_TICKS = 33;
+	private static final int DEATH_HIDDEN_TICKS = 50;
+	private int death_tick = -1;
+	
+	private TyleBoard tyle_board;
+	private GameState game_state;
 	// *********************************************************************************//
 	// *********************************************************************************//
 	// FUNCTIONS TO BE CALLED BEFORE postKeyPressEventHandler()
 	// *********************************************************************************//
-	public CharacterEventHandler(int frames_per_cycle, PacMan pacman, Ghost[] ghosts, Tyle[][] tyle_board) {
+	public CharacterEventHandler(int frames_per_cycle, PacMan pacman, Ghost[] ghosts, TyleBoard tyle_board,
+			DirtyTyles dirty_tyles, GameState game_state) {
 		this.frames_per_cycle = frames_per_cycle;
+		this.game_state = game_state;
 		this.pacman = pacman;
 		this.ghosts = ghosts;
-		this.dotTimer = new DotTimer(ghosts);
+		this.dotTimer = new DotTimer(ghosts, scheduler);
 		this.ghostStateHandler = new GhostStateHandler(ghosts);
 		dotTimer.updateTimer();
-		this.power_up = new PowerUp(pacman, ghosts, PowerUp.State.OFF, tyle_board);
+		this.power_up = new PowerUp(pacman, ghosts, PowerUp.State.OFF, tyle_board, dirty_tyles, scheduler, game_state);
 		this.tyle_board = tyle_board;
 	}
 
+	// Copies the handler's own state and that of the timers and power-ups it
+	// runs. PacMan and the ghosts are copied by the GameState.
+	public void copyFrom(CharacterEventHandler other) {
+		cycle_frame = other.cycle_frame;
+		total_ticks = other.total_ticks;
+		global_dots_captured = other.global_dots_captured;
+		global_dot_counter = other.global_dot_counter;
+		pacman_frames_passed = other.pacman_frames_passed;
+		curPacMan_speed_percent = other.curPacMan_speed_percent;
+		for (int i = 0; i < 4; i++) {
+			ghost_frames_passed[i] = other.ghost_frames_passed[i];
+			curGhost_speed_percent[i] = other.curGhost_speed_percent[i];
+		}
+		death_tick = other.death_tick;
+		scheduler.copyFrom(other.scheduler);
+		dotTimer.copyFrom(other.dotTimer);
+		ghostStateHandler.copyFrom(other.ghostStateHandler);
+		power_up.copyFrom(other.power_up);
+	}
+
 	public void setCharacters() throws IOException {
 		for (int i = 0; i < 4; i++) {
 			Ghost ghost = ghosts[i];
@@ -72,19 +97,30 @@ public class CharacterEventHandler {
 	// *********************************************************************************//
 	
 	/**
-	 * Run in the startGame() in a continuous while-loop. Works by updating image of pacMan based on his state and updating each of the ghosts individually
+	 * Advances the game by exactly one tick. Called by the GameLoop in startGame() 60 times for every second of play. Works by updating image of pacMan based on his state and updating each of the ghosts individually
 	 * @param delta Array of length 2, with x and y deltas for PacMan to move. PacMan will move by x=speed*delta[0] and by y=speed*delta[1]
 	 * @throws IOException 
 	 */
 	public void postKeyPressEventHandler(int[] delta) throws IOException {
-		time_at_start = (long) new Date().getTime();
+		storePreviousPositions();
+		if (death_tick >= 0) {
+			playDeath();
+			return;
+		}
+		if (power_up.updateEatenGhosts())
+			return;
+		scheduler.tick();
 		
+		long time = startTiming();
 		pacman_frames_passed++;
 		pacmanHandler();
 		// ghostStateHandler.switchTargetState();
+		time = lap(TickProfiler.Phase.PACMAN_HANDLER, time);
 		
 		power_up.blinkPowerUps(cycle_frame, 10);
+		time = lap(TickProfiler.Phase.BLINK_POWER_UPS, time);
 		power_up.powerupHandler(pacman);
+		time = lap(TickProfiler.Phase.POWER_UP_HANDLER, time);
 		
 		if (power_up.getState() != PowerUp.State.OFF) {
 			// ghostStateHandler.ghostStateTimer.timer.
@@ -92,24 +128,33 @@ public class CharacterEventHandler {
 		
 		if (!pacman.isStalled(pacman_frames_passed)) {
 			pacman.update(delta[0], delta[1], tyle_board); //Move pacman by dx and dy along tyle_board
-		} else {
-			pacman.changeFramesStalled(pacman.getFramesStalled() + 1);
 		}
+		time = lap(TickProfiler.Phase.PACMAN_UPDATE, time);
 		
 		if (pacman.getDeltaX() != 0 || pacman.getDeltaY() != 0) {		
 			ghostHandler();
 			cycleHandler();
 		}
 		
-		PacManBoard.sleep();
-		
-		time_at_end = (long) new Date().getTime();
-		double time_diff = time_at_end - time_at_start;
-		if (time_diff > 17)
-			time_diff = 16.666;
-		total_time += (time_diff);
-		
-		ghostStateHandler.switchTargetState(total_time, power_up);
+		time = startTiming();
+		total_ticks++;
+		ghostStateHandler.switchTargetState(total_ticks, power_up);
+		lap(TickProfiler.Phase.GHOST_STATE, time);
+	}
+	
+	// Times are only taken for a game that is being profiled, since TickProfiler
+	// keeps one set of figures for the whole program.
+	private long startTiming() {
+		return game_state.isProfiled() ? TickProfiler.start() : 0;
+	}
+
+	private long lap(TickProfiler.Phase phase, long time) {
+		return game_state.isProfiled() ? TickProfiler.lap(phase, time) : 0;
+	}
+	
+	// True while the death animation or an eaten ghost's score is playing.
+	public boolean isInCutscene() {
+		return death_tick >= 0 || power_up.isShowingScore();
 	}
 	
 	// *********************************************************************************//
@@ -117,6 +162,13 @@ public class CharacterEventHandler {
 	// HELPER FUNCTIONS FOR postKeyPressEventHandler()
 	// *********************************************************************************//
 	// Increment cycle_frame and reset it to 0 if it is equal to frames_per_cycle.
+	private void storePreviousPositions() {
+		pacman.storePreviousPosition();
+		for (int i = 0; i < 4; i++) {
+			ghosts[i].storePreviousPosition();
+		}
+	}
+	
 	public void cycleHandler() {
 		cycle_frame++;
 		if (cycle_frame == frames_per_cycle)
@@ -133,12 +185,12 @@ public class CharacterEventHandler {
 		pacman.updateImage();
 		if (pacman.getSpeedPercent() != curPacMan_speed_percent) {
 			pacman_frames_passed = 0;
-			pacman.changeFramesStalled(0);
 			curPacMan_speed_percent = pacman.getSpeedPercent();
 		}
 	}
 	
 	private void ghostHandler() throws IOException {
+		long time = startTiming();
 		if (!global_dot_counter) {
 			incrementGhostDotCount();
 		}
@@ -147,24 +199,25 @@ public class CharacterEventHandler {
 		}
 		
 
-		if (pacman.updateDots(tyle_board)) {
-			PacManBoard.totalScore += 10;
+		if (pacman.updateDots(tyle_board, game_state.isSoundOn())) {
+			game_state.addScore(10);
 			dotTimer.cancelTimer();
-			PacManBoard.TOTAL_DOTS--;
 		}
 		dotTimer.restartTimer();
+		time = lap(TickProfiler.Phase.DOTS, time);
 		
 		for (int i = 0; i < 4; i++) {
 			Ghost ghost = ghosts[i];
 			setGhostData(ghost);
 			if (ghost.getSpeedPercent() != curGhost_speed_percent[i]) {
 				ghost_frames_passed[i] = 0;
-				ghost.changeFramesStalled(0);
 				curGhost_speed_percent[i] = ghost.getSpeedPercent();
 			}
 			curGhost_speed_percent[i] = ghost.getSpeedPercent();
 			ghost_frames_passed[i]++;
 			doCollisionEvents(ghost);
+			if (death_tick >= 0)
+				return;
 			
 			if (!ghost.isStalled(ghost_frames_passed[i])) {
 				ghost.ghostStart(global_dot_counter);
@@ -172,11 +225,12 @@ public class CharacterEventHandler {
 				if (ghost.getHomeState() == HomeState.HAS_EXITED) {
 					ghost.makeMove(pacman);
 				}
-			} else {
-				ghost.changeFramesStalled(ghost.getFramesStalled() + 1);
 			}
 				
 			doCollisionEvents(ghost);
+			time = lap(TickProfiler.GHOSTS[i], time);
+			if (death_tick >= 0)
+				return;
 		}
 	}
 	
@@ -184,37 +238,35 @@ public class CharacterEventHandler {
 		if (ghost.checkCollision(power_up, pacman)) {
 			global_dot_counter = true;
 			global_dots_captured = 0;
-			PacManBoard.lives--;
-			for (int i = 0; i < 30; i++) {
-				PacManBoard.sleep();
-			}
-			
+			game_state.loseLife();
+			death_tick = 0;
+		}
+	}
+	
+	// Everything stands still for DEATH_PAUSE_TICKS, then the ghosts vanish and
+	// PacMan shrivels up, stays hidden for a moment and the board is reset.
+	private void playDeath() throws IOException {
+		death_tick++;
+		if (death_tick <= DEATH_PAUSE_TICKS)
+			return;
+		
+		if (death_tick == DEATH_PAUSE_TICKS + 1) {
 			for (int i = 0; i < 4; i++) {
 				ghosts[i].changeVisibility(Visibility.NOT_VISIBLE);
 			}
 			pacman.setState(PacMan.State.DEAD);
-			Audio audio = new Audio();
-			audio.dieSound();
-			for (int i = 0; i < 33; i++) {
-				pacman.updateImage();
-				PacManBoard.frame.repaint();
-				PacManBoard.sleep();
-			}
+			if (game_state.isSoundOn())
+				Audio.playDie();
+		} else if (death_tick == DEATH_PAUSE_TICKS + DEATH_ANIMATION_TICKS + 1) {
 			pacman.setState(PacMan.State.DEFAULT);
 			pacman.changeVisibility(PacMan.Visibility.NOT_VISIBLE);
-			for (int i = 0; i < 50; i++) {
-				pacman.updateImage();
-				PacManBoard.frame.repaint();
-				PacManBoard.sleep();
-			}
-			
+		} else if (death_tick > DEATH_PAUSE_TICKS + DEATH_ANIMATION_TICKS + DEATH_HIDDEN_TICKS) {
 			for (int i = 0; i < 4; i++) {
 				ghosts[i].changeVisibility(Visibility.VISIBLE);
 			}
 			pacman.changeVisibility(PacMan.Visibility.VISIBLE);
 			pacman.setState(PacMan.State.DEFAULT);
 			pacman.resetPacMan();
-			PacManBoard.frame.repaint();
 			
 			dotTimer.updateTimer();
 			
@@ -222,7 +274,10 @@ public class CharacterEventHandler {
 				ghosts[j].resetGhost();
 			}
 			handleStart();
+			death_tick = -1;
+			return;
 		}
+		pacman.updateImage();
 	}
 	
 	public void incrementGhostDotCount() {
@@ -233,7 +288,7 @@ public class CharacterEventHandler {
 	}
 	
 	public void globalCounterHandler() {
-		if (tyle_board[pacman.getY() / PacManBoard.dimension][pacman.getX() / PacManBoard.dimension].type == TyleType.DOT)
+		if (tyle_board.get(pacman.getY() / GameState.dimension, pacman.getX() / GameState.dimension).type == TyleType.DOT)
 			global_dots_captured++;
 		if (global_dots_captured >= globat_dot_limit[1] && ghosts[1].getHomeState() == HomeState.IS_HOME) {
 			ghosts[1].setHomeState(HomeState.IS_EXITING);
@@ -259,10 +314,7 @@ public class CharacterEventHandler {
 
 	public void handleStart() throws IOException {
 		pacman.updateImage();
-		while (pacman.getStartCount() != -1) {
-			pacman.pacmanStart();
-			PacManBoard.sleep();
-		}
+		pacman.pacmanStart();
 	}
 	
 }
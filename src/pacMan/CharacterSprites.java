@@ -0,0 +1,107 @@
+package pacMan;
+
+import java.awt.Image;
+import java.io.IOException;
+
+import pacMan.Ghost.GhostName;
+
+/**
+ * Every character sprite, resolved once by load() into arrays. Ghost and PacMan
+ * only keep the direction and animation frame of their current image, and
+ * getImage looks the image up in these tables, so updating a character's
+ * image never builds a filename or looks a sprite up by name.
+ */
+public class CharacterSprites {
+
+	// Directions are indexed in the same order as GhostName.filename.
+	public static final int UP = GameState.UP, DOWN = GameState.DOWN, LEFT = GameState.LEFT,
+			RIGHT = GameState.RIGHT;
+
+	// [GhostName ordinal][direction][animation frame]
+	public static Image[][][] ghosts;
+	// [GhostName ordinal]
+	public static Image[] ghost_targets;
+	// [direction]
+	public static Image[] eyes;
+	public static Image blue;
+	public static Image[] blue_blink;
+
+	// [direction][animation frame]
+	public static Image[][] pacman;
+	public static Image pacman_closed;
+	public static Image[] pacman_dying;
+
+	// [PowerUp.State ordinal], the score shown when a ghost is eaten
+	public static Image[] scores;
+
+	private static final String[] eye_files = { "images/eyes_up.png", "images/eyes_down.png",
+			"images/eyes_left.png", "images/eyes_right.png" };
+	private static final String[] blink_files = { "images/blue_blink1.png", "images/blue_blink2.png" };
+	private static final String dying_sprite_sheet = "images/PacManDyingSprite.png";
+
+	public static void load() throws IOException {
+		GhostName[] names = GhostName.values();
+		ghosts = new Image[names.length][4][];
+		ghost_targets = new Image[names.length];
+		for (GhostName name : names) {
+			for (int direction = 0; direction < 4; direction++) {
+				ghosts[name.ordinal()][direction] = loadAll(name.filename[direction]);
+			}
+			ghost_targets[name.ordinal()] = Sprites.get("images/" + name.name().toLowerCase() + "_target.png");
+		}
+		eyes = loadAll(eye_files);
+		blue = Sprites.get("images/blue.png");
+		blue_blink = loadAll(blink_files);
+
+		String prefix = PacMan.Name.PACMAN.filename_prefix;
+		pacman_closed = Sprites.get(prefix + PacMan.filename_appendix[0][0]);
+		pacman = new Image[4][];
+		for (int direction = 0; direction < 4; direction++) {
+			String[] appendix = PacMan.filename_appendix[direction + 1];
+			pacman[direction] = new Image[appendix.length];
+			for (int frame = 0; frame < appendix.length; frame++) {
+				pacman[direction][frame] = Sprites.get(prefix + appendix[frame]);
+			}
+		}
+		pacman_dying = Animator.getClip(dying_sprite_sheet, 11);
+
+		PowerUp.State[] states = PowerUp.State.values();
+		scores = new Image[states.length];
+		for (PowerUp.State state : states) {
+			scores[state.ordinal()] = Sprites.get(state.filename);
+		}
+	}
+
+	public static Image getImage(PacMan character) {
+		if (character.state == PacMan.State.DEAD)
+			return pacman_dying[character.getDyingFrame()];
+		if (character.getSpriteDirection() == PacMan.CLOSED)
+			return pacman_closed;
+		return pacman[character.getSpriteDirection()][character.getSpriteFrame()];
+	}
+
+	public static Image getImage(Ghost ghost) {
+		if (ghost.getScoreShown() != null)
+			return scores[ghost.getScoreShown().ordinal()];
+
+		switch (ghost.getImageState()) {
+		case HEAD_HOME:
+			return eyes[ghost.getSpriteDirection()];
+		case BLUE:
+			return blue;
+		case BLINKING:
+			return blue_blink[ghost.getSpriteFrame()];
+		default:
+			return ghosts[ghost.getGhostName().ordinal()][ghost.getSpriteDirection()][ghost.getSpriteFrame()];
+		}
+	}
+
+	private static Image[] loadAll(String[] filenames) {
+		Image[] images = new Image[filenames.length];
+		for (int i = 0; i < filenames.length; i++) {
+			images[i] = Sprites.get(filenames[i]);
+		}
+		return images;
+	}
+
+}
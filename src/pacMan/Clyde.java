@@ -1,51 +1,41 @@
 package pacMan;
 
-import pacMan.TyleContainer.Tyle;
-
 
 public class Clyde extends Ghost {
 
-	public Clyde(Tyle[][] tyle_board) {
+	public Clyde(TyleBoard tyle_board) {
 		super(GhostName.CLYDE, State.DEFAULT, tyle_board, TargetingState.SCATTER, HomeState.IS_HOME, 60);
 	}
 	
 	public void setSpawnLocation() {
-		Tyle[][] tyleBoard = getTyleBoard();
-		int rows = tyleBoard.length;
-		int columns = tyleBoard[0].length;
-		for (int i = 0; i < rows; i++) {
-			for (int j = 0; j < columns; j++) {
-				if (tyleBoard[i][j] == Tyle.GHOST_WALL_TOP_LEFT) {
-					spawnX = j * PacManBoard.dimension + 5 * PacManBoard.dimension + PacManBoard.dimension / 2;
-					spawnY = i * PacManBoard.dimension + 2 * PacManBoard.dimension;
-					
-					int exitX = j * PacManBoard.dimension + 3 * PacManBoard.dimension;
-					int exitY = i * PacManBoard.dimension - PacManBoard.dimension;
-					setExitX(exitX);
-					setExitY(exitY);
-					
-					int[] target = new int[2];
-					target[0] = j * PacManBoard.dimension + 3 * PacManBoard.dimension;
-					target[1] = i * PacManBoard.dimension + 2 * PacManBoard.dimension;
-					setHomeTarget(target);
-				}
-			}
-		}
+		MazeIndex index = getTyleBoard().getIndex();
+		int house_x = index.getGhostHouseX();
+		int house_y = index.getGhostHouseY();
+		spawnX = house_x + 5 * GameState.dimension + GameState.dimension / 2;
+		spawnY = house_y + 2 * GameState.dimension;
+		
+		int exitX = house_x + 3 * GameState.dimension;
+		int exitY = house_y - GameState.dimension;
+		setExitX(exitX);
+		setExitY(exitY);
+		
+		setHomeTarget(index.getGhostHomeX(), index.getGhostHomeY());
 	}
 	
 	public void updateAttackTarget(PacMan pacman) {
-		double disX = pacman.getX() - getX();
-		double disY = pacman.getY() - getY();
-		double distance = Math.sqrt(disX * disX + disY * disY) / PacManBoard.dimension;
+		int disX = pacman.getX() - getX();
+		int disY = pacman.getY() - getY();
+		int chase_distance = 8 * GameState.dimension;
 		
-		if (distance > 8)
-			setAttackTarget(new int[] {pacman.getX(), pacman.getY()});
+		// Squared, to save a square root.
+		if (disX * disX + disY * disY > chase_distance * chase_distance)
+			setAttackTarget(pacman.getX(), pacman.getY());
 		else
-			setAttackTarget(new int[] {32, 544});
+			setAttackTarget(32, 544);
 	}
 	
 	public void updateScatterTarget() {
-		setScatterTarget(new int[] {32, 544});
+		setScatterTarget(32, 544);
 	}
 
 	public void resetGhost() {
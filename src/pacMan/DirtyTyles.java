@@ -0,0 +1,49 @@
+package pacMan;
+
+/**
+ * Records which cells of the tyle board have changed since the maze layer was
+ * last brought up to date. Each cell is only recorded once, no matter how many
+ * times it changes in between. The game thread marks cells while the paint
+ * thread reads them, so both sides synchronize on this object.
+ */
+public class DirtyTyles {
+
+	private final int columns;
+	private final boolean[] is_dirty;
+	private final int[] dirty_cells;
+	private int count = 0;
+
+	public DirtyTyles(int rows, int columns) {
+		this.columns = columns;
+		this.is_dirty = new boolean[rows * columns];
+		this.dirty_cells = new int[rows * columns];
+	}
+
+	public synchronized void mark(int row, int column) {
+		int cell = row * columns + column;
+		if (!is_dirty[cell]) {
+			is_dirty[cell] = true;
+			dirty_cells[count++] = cell;
+		}
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public int getRow(int i) {
+		return dirty_cells[i] / columns;
+	}
+
+	public int getColumn(int i) {
+		return dirty_cells[i] % columns;
+	}
+
+	public void clear() {
+		for (int i = 0; i < count; i++) {
+			is_dirty[dirty_cells[i]] = false;
+		}
+		count = 0;
+	}
+
+}
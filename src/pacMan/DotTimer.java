@@ -1,8 +1,5 @@
 package pacMan;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 /**
  * 12/27/18
  * @author jakob
@@ -10,28 +7,38 @@ import java.util.TimerTask;
  */
 public class DotTimer {
 	
-	private Timer timer = new Timer();
+	// 4 seconds of play without a dot releases the next ghost.
+	private static final int FREE_GHOST_TICKS = 4 * GameLoop.TICKS_PER_SECOND;
+	
+	private final TickScheduler scheduler;
+	private final FreeGhost free_ghost = new FreeGhost();
 	private boolean timer_is_active;
 	private Ghost[] ghosts;
 	
-	public DotTimer(Ghost[] ghosts) {
+	public DotTimer(Ghost[] ghosts, TickScheduler scheduler) {
 		this.ghosts = ghosts;
+		this.scheduler = scheduler;
+		scheduler.add(free_ghost);
+	}
+	
+	// The deadline itself is copied with the scheduler.
+	public void copyFrom(DotTimer other) {
+		timer_is_active = other.timer_is_active;
 	}
 	
 	public void updateTimer() {
 		if (timer_is_active) {
-			timer.cancel();
+			scheduler.cancel(free_ghost);
 			timer_is_active = false;
 		} else {
 			timer_is_active = true;
-			timer = new Timer();
-			timer.schedule(new FreeGhost(), 4000);
+			scheduler.schedule(free_ghost, FREE_GHOST_TICKS);
 		}
 	}
 	
 	public void cancelTimer() {
 		if (timer_is_active) {
-			timer.cancel();
+			scheduler.cancel(free_ghost);
 			timer_is_active = false;
 		}
 	}
@@ -39,12 +46,11 @@ public class DotTimer {
 	public void restartTimer() {
 		if (!timer_is_active) {
 			timer_is_active = true;
-			timer = new Timer();
-			timer.schedule(new FreeGhost(), 4000);
+			scheduler.schedule(free_ghost, FREE_GHOST_TICKS);
 		}
 	}
 	
-	class FreeGhost extends TimerTask {
+	class FreeGhost extends TickScheduler.Task {
 		
 		public void run() {
 			for(int i =0; i < ghosts.length;i++){
@@ -0,0 +1,28 @@
+package pacMan;
+
+/**
+ * Frame counter of a looping animation. Game logic keeps one of these for each
+ * animation and only stores the index it returns, so a character can be
+ * animated without touching any images.
+ */
+public class FrameCounter {
+
+	private int frame = 0;
+
+	// Returns the index of the image to show, holding each of num_images for
+	// frame_gap frames, and advances the animation.
+	public int nextFrame(int frame_gap, int num_images) {
+		int index = frame / frame_gap;
+
+		frame++;
+		if (frame == num_images * frame_gap)
+			frame = 0;
+
+		return index;
+	}
+
+	public void copyFrom(FrameCounter other) {
+		frame = other.frame;
+	}
+
+}
@@ -0,0 +1,159 @@
+package pacMan;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Watches the pace of the game loop and publishes it as the platform MBean
+ * pacMan:type=FrameMonitor, so a cabinet that starts dropping frames can be
+ * spotted from any JMX console.
+ *
+ * The game loop reports every pass to frame() while it runs at real time, and
+ * not at all at any other speed. Periods and jitter are measured against
+ * GameLoop.TICK_NANOS, and a pass that comes more than half a frame late has
+ * missed its deadline. Ticks the loop had to run twice
+ * in one pass to catch up are counted, as are ticks it gave up on after a
+ * long stall. Garbage collector time is read on every pass, so missed
+ * deadlines that overlap a collection can be told apart from slow code.
+ */
+public class FrameMonitor implements FrameMonitorMBean {
+
+	private static FrameMonitor instance;
+
+	private final Histogram frame_periods = new Histogram();
+	private final Histogram jitter = new Histogram();
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+	private long last_frame = -1;
+	private long last_gc_time;
+	private volatile long missed_deadlines;
+	private volatile long catch_up_ticks;
+	private volatile long dropped_ticks;
+	private volatile long gc_time;
+	private volatile long missed_deadlines_during_gc;
+
+	// The monitor shared by every game loop, registered with the platform
+	// MBean server the first time it is asked for.
+	public static synchronized FrameMonitor getInstance() {
+		if (instance == null) {
+			instance = new FrameMonitor();
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(instance,
+						new ObjectName("pacMan:type=FrameMonitor"));
+			} catch (JMException e) {
+				System.err.println("Could not register the frame monitor: " + e);
+			}
+		}
+		return instance;
+	}
+
+	// Called when a game loop starts, so the time between games does not count
+	// as a frame.
+	public void loopStarted() {
+		last_frame = -1;
+		last_gc_time = getCollectionTime();
+	}
+
+	/**
+	 * Called once for every pass of the game loop.
+	 * @param now System.nanoTime() at the start of the pass
+	 * @param ticks ticks run in this pass
+	 * @param dropped ticks skipped in this pass after a stall
+	 */
+	public void frame(long now, int ticks, long dropped) {
+		long period_nanos = GameLoop.TICK_NANOS;
+		long collection_time = getCollectionTime();
+		boolean collected = collection_time != last_gc_time;
+		gc_time += collection_time - last_gc_time;
+		last_gc_time = collection_time;
+
+		if (ticks > 1)
+			catch_up_ticks += ticks - 1;
+		dropped_ticks += dropped;
+
+		if (last_frame >= 0) {
+			long period = now - last_frame;
+			frame_periods.record(period);
+			jitter.record(Math.abs(period - period_nanos));
+			if (period > period_nanos + period_nanos / 2) {
+				missed_deadlines++;
+				if (collected)
+					missed_deadlines_during_gc++;
+			}
+		}
+		last_frame = now;
+	}
+
+	private long getCollectionTime() {
+		long time = 0;
+		for (int i = 0; i < collectors.size(); i++) {
+			time += Math.max(0, collectors.get(i).getCollectionTime());
+		}
+		return time;
+	}
+
+	public long getFrames() {
+		return frame_periods.getCount();
+	}
+
+	public double getMeanFramePeriod() {
+		return frame_periods.getMean() / 1000000;
+	}
+
+	public double getFramePeriodP50() {
+		return frame_periods.getPercentile(50) / 1000000.0;
+	}
+
+	public double getFramePeriodP99() {
+		return frame_periods.getPercentile(99) / 1000000.0;
+	}
+
+	public double getMaxFramePeriod() {
+		return frame_periods.getMax() / 1000000.0;
+	}
+
+	public double getMeanJitter() {
+		return jitter.getMean() / 1000000;
+	}
+
+	public double getJitterP99() {
+		return jitter.getPercentile(99) / 1000000.0;
+	}
+
+	public long getMissedDeadlines() {
+		return missed_deadlines;
+	}
+
+	public long getCatchUpTicks() {
+		return catch_up_ticks;
+	}
+
+	public long getDroppedTicks() {
+		return dropped_ticks;
+	}
+
+	public long getGcTimeDuringPlay() {
+		return gc_time;
+	}
+
+	public long getMissedDeadlinesDuringGc() {
+		return missed_deadlines_during_gc;
+	}
+
+	// Called from the JMX thread, so the histograms may take a sample or two
+	// from the loop while they are being cleared.
+	public void reset() {
+		frame_periods.reset();
+		jitter.reset();
+		missed_deadlines = 0;
+		catch_up_ticks = 0;
+		dropped_ticks = 0;
+		gc_time = 0;
+		missed_deadlines_during_gc = 0;
+	}
+
+}
@@ -0,0 +1,34 @@
+package pacMan;
+
+/**
+ * Management interface of FrameMonitor. Times are in milliseconds.
+ */
+public interface FrameMonitorMBean {
+
+	long getFrames();
+
+	double getMeanFramePeriod();
+
+	double getFramePeriodP50();
+
+	double getFramePeriodP99();
+
+	double getMaxFramePeriod();
+
+	double getMeanJitter();
+
+	double getJitterP99();
+
+	long getMissedDeadlines();
+
+	long getCatchUpTicks();
+
+	long getDroppedTicks();
+
+	long getGcTimeDuringPlay();
+
+	long getMissedDeadlinesDuringGc();
+
+	void reset();
+
+}
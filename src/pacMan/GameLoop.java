@@ -0,0 +1,128 @@
+package pacMan;
+
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep game loop. Real time is accumulated and the game is advanced
+ * in exact 1/60 s ticks, catching up with extra ticks after a slow frame, so
+ * the speed of play never depends on how long drawing takes. Between ticks the
+ * renderer asks getInterpolation() how far real time has moved past the last
+ * tick and draws the characters part of the way between their previous and
+ * current positions.
+ *
+ * The loop can also run the game faster than real time, by a fixed factor or
+ * as fast as the CPU allows. Every tick is the same either way, so a game
+ * plays out exactly as it would in real time.
+ *
+ * While running at real time, every pass is reported to the FrameMonitor.
+ * At any other speed there are no 1/60 s deadlines to miss, so nothing is
+ * reported.
+ */
+public class GameLoop {
+
+	public static final int TICKS_PER_SECOND = 60;
+	public static final long TICK_NANOS = 1000000000L / TICKS_PER_SECOND;
+
+	// After a stall longer than this, the missed time is dropped instead of being
+	// replayed as a burst of ticks.
+	private static final long MAX_CATCH_UP_NANOS = 250000000L;
+
+	public interface Game {
+		// Advance the game by exactly one tick.
+		void tick() throws IOException;
+
+		boolean isRunning();
+
+		// Ask for a frame to be drawn. Called at most once per pass of the loop.
+		void render();
+	}
+
+	private final Game game;
+	// Real time taken by one tick, or 0 to run ticks back to back.
+	private final long tick_nanos;
+
+	// The moment in real time that the game's current state belongs to.
+	private volatile long sim_time;
+	private long ticks = 0;
+
+	public GameLoop(Game game) {
+		this(game, 1);
+	}
+
+	// speed is a multiple of real time. 0 or less runs unthrottled.
+	public GameLoop(Game game, double speed) {
+		this.game = game;
+		this.tick_nanos = speed > 0 ? (long) (TICK_NANOS / speed) : 0;
+	}
+
+	public void run() throws IOException {
+		if (tick_nanos == 0) {
+			runUnthrottled();
+			return;
+		}
+		FrameMonitor monitor = tick_nanos == TICK_NANOS ? FrameMonitor.getInstance() : null;
+		if (monitor != null)
+			monitor.loopStarted();
+		sim_time = System.nanoTime();
+
+		while (game.isRunning()) {
+			long now = System.nanoTime();
+			long dropped = 0;
+			if (now - sim_time > MAX_CATCH_UP_NANOS) {
+				dropped = (now - sim_time) / tick_nanos - 1;
+				sim_time = now - tick_nanos;
+			}
+
+			int ticks_run = 0;
+			while (sim_time + tick_nanos <= now && game.isRunning()) {
+				game.tick();
+				ticks++;
+				ticks_run++;
+				sim_time += tick_nanos;
+			}
+			if (ticks_run > 0 && monitor != null)
+				monitor.frame(now, ticks_run, dropped);
+			game.render();
+
+			long wait = sim_time + tick_nanos - System.nanoTime();
+			if (wait > 0)
+				LockSupport.parkNanos(wait);
+		}
+	}
+
+	// Ticks without waiting. A frame is still asked for once every 1/60 s of
+	// real time, so a window being watched keeps up.
+	private void runUnthrottled() throws IOException {
+		long next_render = System.nanoTime();
+
+		while (game.isRunning()) {
+			game.tick();
+			ticks++;
+
+			long now = System.nanoTime();
+			if (now - next_render >= 0) {
+				game.render();
+				next_render = now + TICK_NANOS;
+			}
+		}
+	}
+
+	// How far between the previous tick (0) and the current tick (1) the frame
+	// being drawn right now falls.
+	public float getInterpolation() {
+		if (tick_nanos == 0)
+			return 1;
+		float alpha = (float) (System.nanoTime() - sim_time) / tick_nanos;
+		if (alpha < 0)
+			return 0;
+		if (alpha > 1)
+			return 1;
+		return alpha;
+	}
+
+	public long getTicks() {
+		return ticks;
+	}
+
+}
@@ -0,0 +1,289 @@
+package pacMan;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * One game of PacMan with nothing to do with drawing it. A GameState owns the
+ * board, PacMan, the four ghosts, the power-ups and timers (through its
+ * CharacterEventHandler), the score, the lives and the dots left to eat, and
+ * step() moves all of it forward by exactly one tick. Nothing in here uses
+ * AWT, so a game can be played by the Swing view, headless, or many at once.
+ *
+ * A GameState plays one level at a time. The score and lives carry over from
+ * one level to the next, and are cleared when the game is lost.
+ */
+public class GameState {
+
+	public static final int dimension = 16;
+
+	// Directions a player can steer in. These are also the indexes used by
+	// GhostName.filename and the CharacterSprites tables.
+	public static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+	public static final int[] DX = { 0, 0, -1, 1 };
+	public static final int[] DY = { -1, 1, 0, 0 };
+
+	// A level goes through these phases in order. Every phase but PLAYING lasts
+	// a fixed number of ticks.
+	public enum Phase {
+		READY, PLAYING, WON, GAME_OVER, RESTARTING, FINISHED
+	}
+
+	public static final int READY_TICKS = 60 + 90 + 120;
+	public static final int WIN_TICKS = 120;
+	public static final int GAME_OVER_TICKS = 90 + 600;
+	public static final int RESTART_TICKS = 60;
+
+	private final TyleBoard tyle_board;
+	private DirtyTyles dirty_tyles;
+
+	private PacMan pacman;
+	private Ghost[] ghosts = new Ghost[4];
+	private CharacterEventHandler characterHandler;
+	private final int[] delta = { -1, 0 };
+
+	private int score = 0;
+	private int lives = 0;
+
+	private Phase phase = Phase.FINISHED;
+	private int phase_tick;
+
+	// Whether this game plays sounds. Games being run for something other than
+	// a player, like a batch, turn this off for themselves.
+	private boolean sound = Audio.enabled;
+	// Whether this game's ticks are timed by the TickProfiler, which can only
+	// take figures from one game at a time.
+	private boolean profiled = TickProfiler.enabled;
+
+	// board holds one line of text per row of the maze, as read by readBoard().
+	public GameState(List<String> board) {
+		this(TyleBoard.parse(board));
+	}
+
+	// Plays on a copy of maze, which shares its layout with maze.
+	public GameState(TyleBoard maze) {
+		this.tyle_board = maze.copy();
+	}
+
+	public static List<String> readBoard(String file_name) throws FileNotFoundException {
+		List<String> board = new ArrayList<>();
+		Scanner in = new Scanner(new File(file_name));
+
+		while (in.hasNextLine()) {
+			board.add(in.nextLine());
+		}
+
+		in.close();
+		return board;
+	}
+
+	// Sets up a fresh maze and characters and starts the level at READY.
+	public void startLevel() throws IOException {
+		createLevel();
+
+		if (sound)
+			Audio.playStart();
+
+		setPhase(Phase.READY);
+	}
+
+	private void createLevel() throws IOException {
+		tyle_board.reset();
+		dirty_tyles = new DirtyTyles(tyle_board.getRows(), tyle_board.getColumns());
+		pacman = new PacMan(tyle_board, dirty_tyles);
+		setGhosts();
+		characterHandler = new CharacterEventHandler(60, pacman, ghosts, tyle_board, dirty_tyles, this);
+		characterHandler.setCharacters();
+		delta[0] = -1;
+		delta[1] = 0;
+	}
+
+	/**
+	 * Makes a new game in exactly the same state as this one, which will go on to
+	 * play exactly the same way given the same input. The layout of the maze is
+	 * shared with the copy; everything that changes during a game is not.
+	 *
+	 * This is the only call that allocates. To try many moves from one position,
+	 * copy the game once and then restore it with copyFrom() before each try.
+	 */
+	public GameState copy() throws IOException {
+		GameState copy = new GameState(tyle_board);
+		copy.sound = sound;
+		copy.profiled = profiled;
+		if (pacman != null) {
+			copy.createLevel();
+			copy.copyFrom(this);
+		}
+		return copy;
+	}
+
+	/**
+	 * Puts this game in the same state as other, in place. Both games must be of
+	 * the same map and have had a level started, as any copy() of other has. The
+	 * maze is not marked as changed, so a game being drawn should not be
+	 * restored.
+	 */
+	public void copyFrom(GameState other) {
+		tyle_board.copyFrom(other.tyle_board);
+		pacman.copyFrom(other.pacman);
+		for (int i = 0; i < ghosts.length; i++) {
+			ghosts[i].copyFrom(other.ghosts[i]);
+		}
+		characterHandler.copyFrom(other.characterHandler);
+		delta[0] = other.delta[0];
+		delta[1] = other.delta[1];
+		score = other.score;
+		lives = other.lives;
+		phase = other.phase;
+		phase_tick = other.phase_tick;
+	}
+
+	// Starts a whole new game, with no score.
+	public void reset() throws IOException {
+		score = 0;
+		lives = 0;
+		startLevel();
+	}
+
+	private void setGhosts() {
+		ghosts[0] = new Blinky(tyle_board);
+		ghosts[1] = new Pinky(tyle_board);
+		ghosts[2] = new Inky(tyle_board);
+		ghosts[3] = new Clyde(tyle_board);
+
+		for (int i = 0; i < 4; i++) {
+			ghosts[i].setBlinky(ghosts[0]);
+		}
+	}
+
+	/**
+	 * Advances the level by one tick.
+	 * @param direction one of UP, DOWN, LEFT or RIGHT. PacMan turns that way as
+	 *                  soon as the maze lets him.
+	 */
+	public void step(int direction) throws IOException {
+		delta[0] = DX[direction];
+		delta[1] = DY[direction];
+
+		switch (phase) {
+		case READY:
+			if (++phase_tick == READY_TICKS) {
+				characterHandler.handleStart();
+				setPhase(Phase.PLAYING);
+			}
+			break;
+		case PLAYING:
+			characterHandler.postKeyPressEventHandler(delta);
+			if (!characterHandler.isInCutscene()) {
+				if (lives < 0)
+					setPhase(Phase.GAME_OVER);
+				else if (tyle_board.getDotsRemaining() <= 0)
+					setPhase(Phase.WON);
+			}
+			break;
+		case WON:
+			if (++phase_tick == WIN_TICKS)
+				setPhase(Phase.RESTARTING);
+			break;
+		case GAME_OVER:
+			if (++phase_tick == GAME_OVER_TICKS) {
+				score = 0;
+				lives = 0;
+				setPhase(Phase.RESTARTING);
+			}
+			break;
+		case RESTARTING:
+			if (++phase_tick == RESTART_TICKS)
+				setPhase(Phase.FINISHED);
+			break;
+		case FINISHED:
+			break;
+		}
+	}
+
+	private void setPhase(Phase phase) {
+		this.phase = phase;
+		phase_tick = 0;
+	}
+
+	public boolean isSoundOn() {
+		return sound;
+	}
+
+	public void setSound(boolean sound) {
+		this.sound = sound;
+	}
+
+	public boolean isProfiled() {
+		return profiled;
+	}
+
+	public void setProfiled(boolean profiled) {
+		this.profiled = profiled;
+	}
+
+	// Called by the game logic as things are eaten and lost.
+	public void addScore(int points) {
+		score += points;
+	}
+
+	public void loseLife() {
+		lives--;
+	}
+
+	public Phase getPhase() {
+		return phase;
+	}
+
+	// Ticks spent in the current phase so far.
+	public int getPhaseTick() {
+		return phase_tick;
+	}
+
+	public int getScore() {
+		return score;
+	}
+
+	public int getLives() {
+		return lives;
+	}
+
+	public int getDotsRemaining() {
+		return tyle_board.getDotsRemaining();
+	}
+
+	public PacMan getPacMan() {
+		return pacman;
+	}
+
+	public Ghost[] getGhosts() {
+		return ghosts;
+	}
+
+	public TyleBoard getTyleBoard() {
+		return tyle_board;
+	}
+
+	public DirtyTyles getDirtyTyles() {
+		return dirty_tyles;
+	}
+
+	// Returns the direction of a move, or -1 if the move is not one of the four
+	// directions.
+	public static int getDirection(int dx, int dy) {
+		if (dx == 0 && dy == -1)
+			return UP;
+		if (dx == 0 && dy == 1)
+			return DOWN;
+		if (dx == -1 && dy == 0)
+			return LEFT;
+		if (dx == 1 && dy == 0)
+			return RIGHT;
+		return -1;
+	}
+
+}
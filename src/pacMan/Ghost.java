@@ -1,10 +1,5 @@
 package pacMan;
 
-import java.awt.Image;
-import java.awt.Toolkit;
-import java.util.ArrayList;
-import java.util.List;
-
 import pacMan.TyleContainer.Tyle;
 import pacMan.TyleContainer.TyleType;
 
@@ -75,27 +70,28 @@ public abstract class Ghost {
 		}
 	}
 
-	// Creates a new Tyle[][] to be initialized by this class's constructor.
-	private Tyle[][] tyle_board;
+	// Creates a new TyleBoard to be initialized by this class's constructor.
+	private TyleBoard tyle_board;
 
 	// *********************************************************************************//
 	// *********************************************************************************//
 	// VARIABLES ASSOCIATED WITH IMAGES OR GRAPHICS
 	// *********************************************************************************//
-	// Eyes and blink store the graphics to be painted when a ghost is not in its
-	// default state.
-	private String[] eyes = { "images/eyes_up.png", "images/eyes_down.png", "images/eyes_left.png",
-			"images/eyes_right.png" };
-	private String[] blink = { "images/blue_blink1.png", "images/blue_blink2.png" };
-
-	// This holds the ghosts current image, which will be used by the PacManBoard
-	// class
-	public Image character;
-
-	// Creates a new Animator array for each ghost direction in their default state.
-	// Also creates a new Animator for the ghosts, to be used in their blue state.
-	private Animator[] animator = { new Animator(), new Animator(), new Animator(), new Animator() };
-	private Animator blue_animator = new Animator();
+	// The ghost's current image, as the state it was drawn in, the direction it
+	// faces and the frame of its animation. CharacterSprites.getImage turns these
+	// into the image the PacManBoard draws.
+	private State image_state = State.DEFAULT;
+	private int sprite_direction = GameState.UP;
+	private int sprite_frame = 0;
+	// The score shown in place of the ghost just after it has been eaten.
+	private PowerUp.State score_shown;
+
+	// Creates a new FrameCounter for each ghost direction in their default state.
+	// Also creates a new FrameCounter for the ghosts, to be used in their blue state.
+	private FrameCounter[] animator = { new FrameCounter(), new FrameCounter(), new FrameCounter(),
+			new FrameCounter() };
+	private FrameCounter blue_animator = new FrameCounter();
+	private static final int BLUE_BLINK_FRAMES = 2;
 	// *********************************************************************************//
 	// *********************************************************************************//
 	// ENUM VARIABLES
@@ -139,11 +135,13 @@ public abstract class Ghost {
 	
 	private int x;
 	private int y;
+	// Position at the start of the current tick, for drawing between ticks.
+	private int previousX;
+	private int previousY;
 	private int curDeltaX = 0;
 	private int curDeltaY = 0;
 	private int speed = 2;
 	private int speed_percent = 75;
-	private int frames_stalled = 0;
 	private int start_count = 0;
 
 	// These integer arrays store the target for a ghost to reach in each targeting
@@ -151,6 +149,10 @@ public abstract class Ghost {
 	private int[] attack_target = new int[2];
 	private int[] scatter_target = new int[2];
 	private int[] home_target = new int[2];
+
+	// The order ghosts try moves in, which decides between moves that are
+	// equally good.
+	private static final int[] MOVE_ORDER = { GameState.UP, GameState.LEFT, GameState.DOWN, GameState.RIGHT };
 	/***********************************************************************************/
 	/***********************************************************************************/
 
@@ -161,7 +163,7 @@ public abstract class Ghost {
 
 	// This constructor is used to initialize variables that are certain or known on
 	// the start of each game.
-	public Ghost(GhostName ghost, State state, Tyle[][] tyle_board, TargetingState targeting_state,
+	public Ghost(GhostName ghost, State state, TyleBoard tyle_board, TargetingState targeting_state,
 			HomeState home_state, int dot_trigger_count) {
 		this.ghost = ghost;
 		this.state = state;
@@ -175,6 +177,48 @@ public abstract class Ghost {
 		this.y = spawnY;
 	}
 
+	// Copies everything that changes during a game from other, which must be the
+	// same ghost on the same map.
+	public void copyFrom(Ghost other) {
+		image_state = other.image_state;
+		sprite_direction = other.sprite_direction;
+		sprite_frame = other.sprite_frame;
+		score_shown = other.score_shown;
+		for (int i = 0; i < animator.length; i++) {
+			animator[i].copyFrom(other.animator[i]);
+		}
+		blue_animator.copyFrom(other.blue_animator);
+
+		dot_counter_state = other.dot_counter_state;
+		home_state = other.home_state;
+		targeting_state = other.targeting_state;
+		state = other.state;
+		visibility = other.visibility;
+		back_tracking = other.back_tracking;
+		dot_trigger_count = other.dot_trigger_count;
+		dots_captured = other.dots_captured;
+
+		spawnX = other.spawnX;
+		spawnY = other.spawnY;
+		exitX = other.exitX;
+		exitY = other.exitY;
+		x = other.x;
+		y = other.y;
+		previousX = other.previousX;
+		previousY = other.previousY;
+		curDeltaX = other.curDeltaX;
+		curDeltaY = other.curDeltaY;
+		speed = other.speed;
+		speed_percent = other.speed_percent;
+		start_count = other.start_count;
+		for (int i = 0; i < 2; i++) {
+			attack_target[i] = other.attack_target[i];
+			scatter_target[i] = other.scatter_target[i];
+			home_target[i] = other.home_target[i];
+		}
+		density = other.density;
+	}
+
 	// Each ghost has a different way of choosing their targets for each state.
 	// These need to be abstract because no ghosts share the same targeting logic.
 	public abstract void updateAttackTarget(PacMan pacman);
@@ -187,7 +231,9 @@ public abstract class Ghost {
 
 	// Initialize the starting image of a ghost.
 	public void setImage() {
-		character = Toolkit.getDefaultToolkit().getImage(ghost.filename[0][0]);
+		image_state = State.DEFAULT;
+		sprite_direction = GameState.UP;
+		sprite_frame = 0;
 	}
 
 	public abstract void setSpawnLocation();
@@ -195,6 +241,7 @@ public abstract class Ghost {
 	// Update a ghost's image based on which State its in.
 	public void updateImage() {
 
+		image_state = getState();
 		if (getState() == State.DEFAULT) {
 			rotateCharacter();
 		} else if (getState() == State.HEAD_HOME) {
@@ -213,13 +260,13 @@ public abstract class Ghost {
 	public void setSpeed() {
 		if (getState() == State.HEAD_HOME) {
 			speed_percent = 75; // Set speed_percent to 75 after a ghost has been eaten.
-			if (x % PacManBoard.dimension == 0 && y % PacManBoard.dimension == 0)
+			if (x % GameState.dimension == 0 && y % GameState.dimension == 0)
 				speed = 4; // Also set speed to 4.
 		} else if (getState() != State.DEFAULT) {
 			speed_percent = 50; // Set speed_percent to 50 if a ghost is blue.
 			speed = 2;
 		} else {
-			if (tyle_board[y / PacManBoard.dimension][x / PacManBoard.dimension] == Tyle.TELEPORT_PATH)
+			if (tyle_board.get(y / GameState.dimension, x / GameState.dimension) == Tyle.TELEPORT_PATH)
 				speed_percent = 40; // Set speed_percent to 50 when a ghost is traveling on a TELEPORT_PATH.
 			else
 				speed_percent = 75; // Set speed_percent to 75 when a ghost is in its Default state.
@@ -237,9 +284,9 @@ public abstract class Ghost {
 				updateDeltaY(1);
 			}
 			
-			if (getY() == spawnY + PacManBoard.dimension / 2)
+			if (getY() == spawnY + GameState.dimension / 2)
 				updateDeltaY(-1);
-			else if (getY() == spawnY - PacManBoard.dimension / 2) {
+			else if (getY() == spawnY - GameState.dimension / 2) {
 				updateDeltaY(1);
 			}
 			updateX(getDeltaX());
@@ -282,14 +329,16 @@ public abstract class Ghost {
 	// Method for making a ghost's move and updating its position based on its
 	// target square.
 	public void makeMove(PacMan pacman) {
-		int[] target = new int[2];
+		int targetX = 0, targetY = 0;
 		updateAttackTarget(pacman); // Update this each time makeMove is called
 		updateScatterTarget(); // Update this each time makeMove is called
 
 		if (targeting_state == TargetingState.ATTACK) {
-			target = attack_target; // Set the ghost's target equal to attack target when in its attack state.
+			targetX = attack_target[0]; // Set the ghost's target equal to attack target when in its attack state.
+			targetY = attack_target[1];
 		} else if (targeting_state == TargetingState.SCATTER) {
-			target = scatter_target; // Set the ghost's target equal to its appropriate state.
+			targetX = scatter_target[0]; // Set the ghost's target equal to its appropriate state.
+			targetY = scatter_target[1];
 		} else if (targeting_state == TargetingState.GO_HOME) {
 			goHome(); // Call goHome method during a Ghost's GO_HOME state because there are more
 							// specific instructions.
@@ -303,8 +352,8 @@ public abstract class Ghost {
 			attack_target[1] = pacman.getY();
 		}
 
-		getGhostMove(target[0], target[1]); // Call getGhostMove which will set curDeltaX and curDeltaY to their
-												// appropriate values.
+		getGhostMove(targetX, targetY); // Call getGhostMove which will set curDeltaX and curDeltaY to their
+											// appropriate values.
 
 		updateX(getDeltaX()); // Update x and y for each move.
 		updateY(getDeltaY());
@@ -312,96 +361,62 @@ public abstract class Ghost {
 
 	// This method takes in a dx and dy and updates a ghost's curdelta values.
 	public void getGhostMove(int targetX, int targetY) {
-		if (tyle_board[y / PacManBoard.dimension][x / PacManBoard.dimension].type == TyleType.TELEPORT)
-			teleport(tyle_board[y / PacManBoard.dimension][x / PacManBoard.dimension]); // Call this if a Ghost is on a
+		if (tyle_board.get(y / GameState.dimension, x / GameState.dimension).type == TyleType.TELEPORT)
+			teleport(tyle_board.get(y / GameState.dimension, x / GameState.dimension)); // Call this if a Ghost is on a
 																						// TELEPORT square.
 
-		List<int[]> move = new ArrayList<int[]>(); // Create an list to store the possible moves a ghost could make.
-		int[][] delta = { { 0, -1 }, { -1, 0 }, { 0, 1 }, { 1, 0 } }; // These are the four delta values in ordered this
-																		// way for desired preference of selection.
-
-		for (int i = 0; i < 4; i++) {
-			if (isValid(delta[i][0], delta[i][1])) { // Call isValid to check is a move is valid.
-				move.add(delta[i]); // Add a move to the list if it is valid.
-			}
-		}
-		
-		int[] chosen_move = new int[2];
-		
-		if (move.size() != 0) {
-			if (targeting_state != TargetingState.FRIGHTENED)
-				chosen_move = findClosestMove(targetX, targetY, move); // Call findClosestMove to get the desired move.
-			else
-				chosen_move = findLongestMove(targetX, targetY, move);
-		} else {
-			chosen_move[0] = curDeltaX;
-			chosen_move[1] = curDeltaY;
-		}
-		
 		updateSpeed(speed);
 
-		updateDeltaX(chosen_move[0]); // Update each delta with the new move.
-		updateDeltaY(chosen_move[1]);
-
-	}
-
-	// This method takes in a target x and y and a moves list, and returns the move
-	// which will put the ghost closest to its target.
-	private int[] findClosestMove(int targetX, int targetY, List<int[]> move) {
-		double distance = 100000; // Set distance to an unreachable, high value.
-
-		for (int i = 0; i < move.size(); i++) {
-			double tempDistance = getDistance(targetX, targetY, move.get(i)); // Use getDistance to find move's diagonal
-																				// distance to its target.
-			if (tempDistance < distance)
-				distance = tempDistance; // Set distance equal to the new tempDistance if tempDistance is less than
-											// distance.
-		}
-
-		for (int i = 0; i < move.size(); i++) {
-			if (getDistance(targetX, targetY, move.get(i)) > distance) {
-				move.remove(i); // Remove any moves that result in a greater distance than the shortest
-								// distance.
-				i--;
+		// Away from junctions, a ghost lined up with the maze that came in through
+		// one of the tyle's exits can only leave by the other, so there is no
+		// choice to make.
+		int row = y / GameState.dimension, column = x / GameState.dimension;
+		int back = GameState.getDirection(-curDeltaX, -curDeltaY);
+		if (!back_tracking && back >= 0 && x % GameState.dimension == 0 && y % GameState.dimension == 0
+				&& !tyle_board.getIndex().isJunction(row, column, density)) {
+			int exits = tyle_board.getIndex().getGhostExits(row, column, density);
+			if ((exits & (1 << back)) != 0) {
+				exits &= ~(1 << back);
+				if (exits != 0) {
+					int direction = Integer.numberOfTrailingZeros(exits);
+					updateDeltaX(GameState.DX[direction]);
+					updateDeltaY(GameState.DY[direction]);
+				}
+				return;
 			}
 		}
 
-		return move.get(0);
-	}
-	
-	private int[] findLongestMove(int targetX, int targetY, List<int[]> move) {
-		double distance = -100;
-
-		for (int i = 0; i < move.size(); i++) {
-			double tempDistance = getDistance(targetX, targetY, move.get(i)); // Use getDistance to find move's diagonal
-																				// distance to its target.
-			if (tempDistance > distance)
-				distance = tempDistance;
+		// Try each move in MOVE_ORDER and keep the first one that is closest to the
+		// target, or furthest from it when frightened. Distances are compared
+		// squared, which orders them the same way.
+		boolean closest = targeting_state != TargetingState.FRIGHTENED;
+		int chosen = -1;
+		long best_distance = 0;
+		for (int i = 0; i < 4; i++) {
+			int direction = MOVE_ORDER[i];
+			if (!isValid(GameState.DX[direction], GameState.DY[direction])) // Call isValid to check is a move is valid.
+				continue;
+			long distance = getSquaredDistance(targetX, targetY, direction);
+			if (chosen < 0 || (closest ? distance < best_distance : distance > best_distance)) {
+				chosen = direction;
+				best_distance = distance;
+			}
 		}
 
-		for (int i = 0; i < move.size(); i++) {
-			if (getDistance(targetX, targetY, move.get(i)) < distance) {
-				move.remove(i); // Remove any moves that result in a greater distance than the shortest
-								// distance.
-				i--;
-			}
+		// Keep going the same way if there is no valid move.
+		if (chosen >= 0) {
+			updateDeltaX(GameState.DX[chosen]); // Update each delta with the new move.
+			updateDeltaY(GameState.DY[chosen]);
 		}
 
-		return move.get(0);
 	}
 
-	// Returns a double, representing the diagonal distance between two points.
-	private double getDistance(int targetX, int targetY, int[] move) {
-
-		// Set row and column values by adding delta number of dimension to a ghosts
-		// current location.
-		int newY = y + move[1] * PacManBoard.dimension, newX = x + move[0] * PacManBoard.dimension;
-
-		// Use Pathagorean's theorem to get the diagonal distance between the two
-		// points.
-		double distance = Math.sqrt((targetY - newY) * (targetY - newY) + (targetX - newX) * (targetX - newX));
-
-		return distance;
+	// Returns the squared distance between the target and the square a ghost
+	// would move to in direction.
+	private long getSquaredDistance(int targetX, int targetY, int direction) {
+		long dx = targetX - (x + GameState.DX[direction] * GameState.dimension);
+		long dy = targetY - (y + GameState.DY[direction] * GameState.dimension);
+		return dx * dx + dy * dy;
 	}
 
 	public boolean isValid(int dx, int dy) {
@@ -417,58 +432,31 @@ public abstract class Ghost {
 			return false;
 		}
 		
-		if (x % PacManBoard.dimension != 0 || y % PacManBoard.dimension != 0)
+		if (x % GameState.dimension != 0 || y % GameState.dimension != 0)
 			return false;
 
-		// Get the new column and row using the input delta values.
-		int column = getX() / PacManBoard.dimension + dx, row = getY() / PacManBoard.dimension + dy;
-
-		// Return false if a ghost would end up on a WALL or UNREACHABLE tyle
-		if (tyle_board[row][column].type == TyleType.UNREACHABLE || tyle_board[row][column].type == TyleType.WALL)
-			return false;
-		// Return false if a ghost would travel down onto a GHOSTGATE tyle. A ghost
-		// without a density of 1
-		// may do this though.
-		if (tyle_board[row][column].type == TyleType.GHOSTGATE && dy == 1 && density == 1)
-			return false;
-		// Return false if a ghost would travel up through a DOWN_ONLY_SQUARE, unless
-		// density is not 1.
-		if (tyle_board[row][column] == Tyle.DOWN_ONLY_SQUARE && dy == -1 && density == 1)
-			return false;
-		
-		return true; // If not illegal conditions have been met, then this move is acceptable.
+		// The maze index knows which ways out of this tyle a ghost of this density
+		// may take: not into a WALL or UNREACHABLE tyle and, with a density of 1,
+		// not down onto the GHOSTGATE or up through a DOWN_ONLY_SQUARE.
+		int exits = tyle_board.getIndex().getGhostExits(y / GameState.dimension, x / GameState.dimension, density);
+		return (exits & (1 << GameState.getDirection(dx, dy))) != 0;
 	}
 
 	public void teleport(Tyle type) {
-		if (type == Tyle.TELEPORT_SQUARE_A && curDeltaX == -1) {
-			for (int i = 0; i < tyle_board.length; i++) {
-				for (int j = 0; j < tyle_board[0].length; j++) {
-					if (tyle_board[i][j] == Tyle.TELEPORT_SQUARE_B) {
-						this.x = j * PacManBoard.dimension;
-						this.y = i * PacManBoard.dimension;
-						return;
-					}
-				}
-			}
-		}
-		if (type == Tyle.TELEPORT_SQUARE_B && curDeltaX == 1) {
-			for (int i = 0; i < tyle_board.length; i++) {
-				for (int j = 0; j < tyle_board[0].length; j++) {
-					if (tyle_board[i][j] == Tyle.TELEPORT_SQUARE_A) {
-						this.x = j * PacManBoard.dimension;
-						this.y = i * PacManBoard.dimension;
-						return;
-					}
-				}
+		if ((type == Tyle.TELEPORT_SQUARE_A && curDeltaX == -1) || (type == Tyle.TELEPORT_SQUARE_B && curDeltaX == 1)) {
+			int[] exit = tyle_board.getIndex().getTeleportExit(type);
+			if (exit != null) {
+				this.x = exit[1] * GameState.dimension;
+				this.y = exit[0] * GameState.dimension;
 			}
 		}
 	}
 
 	public boolean checkCollision(PowerUp power_up, PacMan pacman) {
-		int pRow = pacman.getY() / PacManBoard.dimension;
-		int pCol = pacman.getX() / PacManBoard.dimension;
-		int gRow = y / PacManBoard.dimension;
-		int gCol = x / PacManBoard.dimension;
+		int pRow = pacman.getY() / GameState.dimension;
+		int pCol = pacman.getX() / GameState.dimension;
+		int gRow = y / GameState.dimension;
+		int gCol = x / GameState.dimension;
 
 		if (density == 1 && pRow == gRow && pCol == gCol && state == State.DEFAULT) {
 			return true;
@@ -478,7 +466,7 @@ public abstract class Ghost {
 
 	public void goHome() {
 		if (x != home_target[0] || y != home_target[1]) {
-			getGhostMove(home_target[0], home_target[1]);
+			followHomeFlow();
 			targeting_state = TargetingState.GO_HOME;
 			density = 0;
 		} else {
@@ -489,36 +477,54 @@ public abstract class Ghost {
 		}
 	}
 
+	// Eyes turn the way the maze index's flow field says at the start of each
+	// tyle, which takes them home the shortest way, and go straight in between.
+	private void followHomeFlow() {
+		Tyle tyle = tyle_board.get(y / GameState.dimension, x / GameState.dimension);
+		if (tyle.type == TyleType.TELEPORT)
+			teleport(tyle);
+
+		if (x % GameState.dimension != 0 || y % GameState.dimension != 0)
+			return;
+		int direction = tyle_board.getIndex().getHomeDirection(y / GameState.dimension, x / GameState.dimension);
+		if (direction < 0) {
+			getGhostMove(home_target[0], home_target[1]);
+			return;
+		}
+		// The field may send the eyes back the way they came, which uses up a
+		// pending reversal.
+		back_tracking = false;
+		updateDeltaX(GameState.DX[direction]);
+		updateDeltaY(GameState.DY[direction]);
+	}
+
+	// The rotate methods pick the direction and animation frame of the ghost's
+	// image, which index the CharacterSprites tables.
 	public void rotateBlue() {
 		if (state == State.BLINKING) {
-			character = blue_animator.generateAnimation(12, blink);
-		} else {
-			this.character = Toolkit.getDefaultToolkit().getImage("images/blue.png");
+			sprite_frame = blue_animator.nextFrame(12, BLUE_BLINK_FRAMES);
 		}
 	}
 
 	public void rotateCharacter() {
-		int[][] delta = { { 0, -1 }, { 0, 1 }, { -1, 0 }, { 1, 0 } };
+		int direction = GameState.getDirection(curDeltaX, curDeltaY);
 
-		for (int i = 0; i < 4; i++) {
-			if (curDeltaX == delta[i][0] && curDeltaY == delta[i][1]) {
-				character = animator[i].generateAnimation(5, ghost.filename[i]);
-			}
+		if (direction >= 0) {
+			sprite_direction = direction;
+			sprite_frame = animator[direction].nextFrame(5, ghost.filename[direction].length);
 		}
 	}
 
 	public void rotateEyes() {
-		int[][] delta = { { 0, -1 }, { 0, 1 }, { -1, 0 }, { 1, 0 } };
+		int direction = GameState.getDirection(curDeltaX, curDeltaY);
 
-		for (int i = 0; i < 4; i++) {
-			if (curDeltaX == delta[i][0] && curDeltaY == delta[i][1]) {
-				character = Toolkit.getDefaultToolkit().getImage(eyes[i]);
-			}
+		if (direction >= 0) {
+			sprite_direction = direction;
 		}
 	}
 	
 	public void setFrightenedTarget(PacMan pacman) {
-		setAttackTarget(new int[] {pacman.getX(), pacman.getY()});
+		setAttackTarget(pacman.getX(), pacman.getY());
 	}
 
 	public void updateDeltaX(int deltaX) {
@@ -577,19 +583,43 @@ public abstract class Ghost {
 		return y;
 	}
 
+	public void storePreviousPosition() {
+		previousX = x;
+		previousY = y;
+	}
+
+	public int getPreviousX() {
+		return previousX;
+	}
+
+	public int getPreviousY() {
+		return previousY;
+	}
+
 	public int getSpeed() {
 		return speed;
 	}
 
-	public Image getImage() {
-		return character;
+	public State getImageState() {
+		return image_state;
 	}
-	
-	public void changeImage(String filename, Image image) {
-		if (image == null)
-			character = Toolkit.getDefaultToolkit().getImage(filename);
-		else
-			character = image;
+
+	public int getSpriteDirection() {
+		return sprite_direction;
+	}
+
+	public int getSpriteFrame() {
+		return sprite_frame;
+	}
+
+	// Show the score earned for eating this ghost in its place, or null to show
+	// the ghost again.
+	public void showScore(PowerUp.State score) {
+		score_shown = score;
+	}
+
+	public PowerUp.State getScoreShown() {
+		return score_shown;
 	}
 
 	public int getStartCount() {
@@ -612,7 +642,7 @@ public abstract class Ghost {
 		speed_percent = percent;
 	}
 
-	public Tyle[][] getTyleBoard() {
+	public TyleBoard getTyleBoard() {
 		return tyle_board;
 	}
 
@@ -624,16 +654,21 @@ public abstract class Ghost {
 		return density;
 	}
 
-	public void setAttackTarget(int[] target) {
-		attack_target = target;
+	// Targets are written into the ghost's own arrays, so setting one every tick
+	// allocates nothing.
+	public void setAttackTarget(int x, int y) {
+		attack_target[0] = x;
+		attack_target[1] = y;
 	}
 
-	public void setScatterTarget(int[] target) {
-		scatter_target = target;
+	public void setScatterTarget(int x, int y) {
+		scatter_target[0] = x;
+		scatter_target[1] = y;
 	}
 
-	public void setHomeTarget(int[] target) {
-		home_target = target;
+	public void setHomeTarget(int x, int y) {
+		home_target[0] = x;
+		home_target[1] = y;
 	}
 
 	public void setDotCounterState(DotCounterState state) {
@@ -674,8 +709,8 @@ public abstract class Ghost {
 
 	public void incrementDotsCaptured(PacMan pacman) {
 		if (dot_counter_state == DotCounterState.ACTIVE) {			
-			if (tyle_board[pacman.getY() / PacManBoard.dimension][pacman.getX()
-					/ PacManBoard.dimension].type == TyleType.DOT) {
+			if (tyle_board.get(pacman.getY() / GameState.dimension, pacman.getX()
+					/ GameState.dimension).type == TyleType.DOT) {
 				dots_captured++;
 			}
 		}
@@ -709,20 +744,10 @@ public abstract class Ghost {
 		this.visibility = visibility;
 	}
 	
-	public int getFramesStalled() {
-		return frames_stalled;
-	}
-	
-	public void changeFramesStalled(int num) {
-		frames_stalled = num;
-	}
-	
+	// Whether the ghost stands still this frame, frames_passed frames after its
+	// speed percent last changed.
 	public boolean isStalled(int frames_passed) {
-		double ratio = (100 - speed_percent) / 100.0;
-		if ((frames_stalled * 1.0) / frames_passed < ratio)
-			return true;
-		else
-			return false;
+		return SpeedPattern.isStalled(speed_percent, frames_passed);
 	}
 	
 	// *********************************************************************************//
@@ -730,25 +755,8 @@ public abstract class Ghost {
 	// TARGET SQUARE DRAWER STUFF ---> ONLY TEMPORARY
 	// *********************************************************************************//
 	
-	public Image targetSquare;
-	
 	public int[] updateTargetSquare() {
-		int[] target = new int[2];
-		
-		switch (ghost) {
-		case BLINKY:
-			targetSquare = Toolkit.getDefaultToolkit().getImage("images/blinky_target.png");
-			break;
-		case PINKY:
-			targetSquare = Toolkit.getDefaultToolkit().getImage("images/pinky_target.png");
-			break;
-		case INKY:
-			targetSquare = Toolkit.getDefaultToolkit().getImage("images/inky_target.png");
-			break;
-		case CLYDE:
-			targetSquare = Toolkit.getDefaultToolkit().getImage("images/clyde_target.png");
-			break;
-		}
+		int[] target = attack_target;
 		
 		switch (targeting_state) {
 		case ATTACK:
@@ -1,8 +1,5 @@
 package pacMan;
 
-import java.util.Timer;
-import java.util.TimerTask;
-
 import pacMan.Ghost.TargetingState;
 import pacMan.PowerUp.State;
 
@@ -11,30 +8,42 @@ public class GhostStateHandler{
 	private Ghost[] ghosts;	
 	private boolean attacking, scattering;
 	
-	private long temp_time = 0;
-	private double time_passed = 0;
+	// Scatter and attack phases are counted in simulation ticks, so they last the
+	// same number of frames of play however busy the machine is.
+	private static final long SCATTER_TICKS = 7 * GameLoop.TICKS_PER_SECOND;
+	private static final long ATTACK_TICKS = 20 * GameLoop.TICKS_PER_SECOND;
+
+	private long temp_ticks = 0;
+	private long ticks_passed = 0;
 	
 	public GhostStateHandler(Ghost[] ghosts) {
 		this.ghosts = ghosts;
 	}
 	
-	public void switchTargetState(long total_time, PowerUp powerup) {
+	public void copyFrom(GhostStateHandler other) {
+		attacking = other.attacking;
+		scattering = other.scattering;
+		temp_ticks = other.temp_ticks;
+		ticks_passed = other.ticks_passed;
+	}
+	
+	public void switchTargetState(long total_ticks, PowerUp powerup) {
 		if (powerup.getState() == State.OFF) {
-			time_passed = (total_time - temp_time) / 1000.0;		
+			ticks_passed = total_ticks - temp_ticks;
 			for (int i = 0; i < 4; i++) {
 				Ghost ghost = ghosts[i];
 				if (ghost.getTargetingState() != TargetingState.GO_HOME 
 						&& ghost.getTargetingState() != TargetingState.FRIGHTENED) {
-					if (time_passed >= 7 && !attacking) {
-						temp_time = total_time;
+					if (ticks_passed >= SCATTER_TICKS && !attacking) {
+						temp_ticks = total_ticks;
 						ghost.setTargetingState(TargetingState.ATTACK);
 						ghost.setBackTracking(true);
 						if (i == 3) {
 							attacking = true;
 							scattering = false;
 						}
-					} else if (time_passed >= 20 && !scattering) {
-						temp_time = total_time;
+					} else if (ticks_passed >= ATTACK_TICKS && !scattering) {
+						temp_ticks = total_ticks;
 						ghost.setTargetingState(TargetingState.SCATTER);
 						ghost.setBackTracking(true);
 						if (i == 3) {
@@ -45,7 +54,7 @@ public class GhostStateHandler{
 				}
 			}
 		} else {
-			temp_time = (long) (total_time - time_passed * 1000);
+			temp_ticks = total_ticks - ticks_passed; // The phase clock stands still while ghosts are frightened.
 		}
 	}
 	
@@ -0,0 +1,82 @@
+package pacMan;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Renders the board without a window. Every frame is composed with
+ * PacManBoard.composeFrame into the same BufferedImage, whose pixel array is
+ * handed out directly, so rendering a frame allocates nothing. Works with
+ * java.awt.headless=true.
+ *
+ * Once attached with PacManBoard.setHeadlessRenderer, a frame is rendered
+ * after every simulation step and passed to the FrameListener.
+ */
+public class HeadlessRenderer {
+
+	public interface FrameListener {
+		void frameRendered(HeadlessRenderer renderer);
+	}
+
+	private final PacManBoard pacman_board;
+	private final FrameListener listener;
+	private final BufferedImage frame_image;
+	private final Graphics2D g;
+	private final int[] int_pixels;
+	private final byte[] byte_pixels;
+
+	// image_type is one of the BufferedImage types backed by a single int or byte
+	// array, such as TYPE_INT_RGB, TYPE_INT_ARGB, TYPE_3BYTE_BGR or TYPE_BYTE_GRAY.
+	public HeadlessRenderer(PacManBoard pacman_board, int image_type, FrameListener listener) {
+		this.pacman_board = pacman_board;
+		this.listener = listener;
+		this.frame_image = new BufferedImage(pacman_board.getBoardWidth(), pacman_board.getBoardHeight(), image_type);
+		this.g = frame_image.createGraphics();
+
+		DataBuffer buffer = frame_image.getRaster().getDataBuffer();
+		if (buffer instanceof DataBufferInt) {
+			int_pixels = ((DataBufferInt) buffer).getData();
+			byte_pixels = null;
+		} else if (buffer instanceof DataBufferByte) {
+			int_pixels = null;
+			byte_pixels = ((DataBufferByte) buffer).getData();
+		} else {
+			throw new IllegalArgumentException("Unsupported image type " + image_type);
+		}
+	}
+
+	public void renderFrame() {
+		g.setColor(PacManBoard.getBackgroundColor());
+		g.fillRect(0, 0, frame_image.getWidth(), frame_image.getHeight());
+		pacman_board.composeFrame(g);
+
+		if (listener != null)
+			listener.frameRendered(this);
+	}
+
+	public BufferedImage getImage() {
+		return frame_image;
+	}
+
+	// The frame's pixels, or null if the image type is not int backed.
+	public int[] getIntPixels() {
+		return int_pixels;
+	}
+
+	// The frame's pixels, or null if the image type is not byte backed.
+	public byte[] getBytePixels() {
+		return byte_pixels;
+	}
+
+	public int getWidth() {
+		return frame_image.getWidth();
+	}
+
+	public int getHeight() {
+		return frame_image.getHeight();
+	}
+
+}
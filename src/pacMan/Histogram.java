@@ -0,0 +1,95 @@
+package pacMan;
+
+/**
+ * Fixed-size log-linear histogram of nanosecond durations. Every power of two
+ * is split into 8 equal buckets, so any recorded value is known to within
+ * 12.5%, from 1 ns up to Long.MAX_VALUE, in 512 counters. Recording a value is
+ * a few bit operations and allocates nothing.
+ *
+ * Values are written by one thread. Reading from another thread while values
+ * are being recorded gives figures that may be a few samples out of date.
+ */
+public class Histogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+	private long count;
+	private long total;
+	private long max;
+
+	public void record(long value) {
+		if (value < 0)
+			value = 0;
+		counts[bucketOf(value)]++;
+		count++;
+		total += value;
+		if (value > max)
+			max = value;
+	}
+
+	// Values below 8 get a bucket each. Above that, the top bit picks the power
+	// of two and the three bits below it pick one of its 8 buckets.
+	private static int bucketOf(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub_bucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub_bucket;
+	}
+
+	// The largest value that falls in the bucket.
+	private static long highestValueIn(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long sub_bucket = bucket % SUB_BUCKETS;
+		long lowest = (SUB_BUCKETS + sub_bucket) << (exponent - SUB_BUCKET_BITS);
+		return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/**
+	 * @param percentile between 0 and 100
+	 * @return a value that at least that percentage of the recorded values are no
+	 *         larger than, accurate to one bucket and never above the maximum
+	 */
+	public long getPercentile(double percentile) {
+		if (count == 0)
+			return 0;
+		long rank = (long) Math.ceil(count * percentile / 100);
+		if (rank < 1)
+			rank = 1;
+
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += counts[bucket];
+			if (seen >= rank)
+				return Math.min(highestValueIn(bucket), max);
+		}
+		return max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0 : (double) total / count;
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = 0;
+		}
+		count = 0;
+		total = 0;
+		max = 0;
+	}
+
+}
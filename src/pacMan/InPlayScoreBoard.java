@@ -2,7 +2,7 @@ package pacMan;
 
 import java.awt.Graphics;
 import java.awt.Image;
-import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -12,38 +12,56 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Scanner;
 
+import pacMan.TyleContainer.Tyle;
+
 public class InPlayScoreBoard {
 
 	private AlphaNumericChars alphaNumChars;
 	private PacManBoard pacman_board;
 	private final ArrayList<String> char_panel = new ArrayList<>();
 	private ScoreTyleContainer.ScoreTyle[][] score_panel;
+	private BufferedImage score_panel_image;
+	
+	// The score and high score only change a few times a second, so each is kept
+	// as a cached strip of digits.
+	private ScoreStrip scoreStrip;
+	private ScoreStrip highScoreStrip;
 	
 	public InPlayScoreBoard(PacManBoard pacman_board) throws IOException {
-		alphaNumChars = new AlphaNumericChars(pacman_board);
+		this.pacman_board = pacman_board;
+		alphaNumChars = AlphaNumericChars.getAtlas();
+		scoreStrip = new ScoreStrip(alphaNumChars, 0, 2);
+		highScoreStrip = new ScoreStrip(alphaNumChars, 0, 1);
 	}
 
 	public void drawScorePanel(Graphics g) {
+		g.drawImage(score_panel_image, 0, 0, pacman_board);
+	}
+	
+	private void renderScorePanel() {
+		int dim = PacManBoard.screenDimension;
 		int rows = char_panel.size();
 		int columns = char_panel.get(0).length();
+		score_panel_image = Sprites.createImage(dim * columns, dim * rows);
+		Graphics g = score_panel_image.createGraphics();
 		for (int i = 0; i < rows; i++) {
 			for (int j = 0; j < columns; j++) {
 				Image piece;
-				int posX = PacManBoard.dimension * j;
-				int posY = PacManBoard.dimension * i;
+				int posX = dim * j;
+				int posY = dim * i;
 				int index = charIndexHelper(char_panel.get(i).charAt(j));
 				if (index < 0)
-					piece = Toolkit.getDefaultToolkit().getImage("images/black_square.png");
+					piece = TyleImageCache.get(Tyle.BLACK_SQUARE);
 				else
 					piece = alphaNumChars.alphaNumImages[0][index];
 				
 				if (i == 1)
-					posY -= PacManBoard.dimension / 4;
+					posY -= dim / 4;
 				
-				g.drawImage(piece, posX, posY, PacManBoard.dimension,
-						PacManBoard.dimension, pacman_board);
+				g.drawImage(piece, posX, posY, null);
 			}
 		}
+		g.dispose();
 	}
 	
 	private int charIndexHelper(char character) {
@@ -56,24 +74,19 @@ public class InPlayScoreBoard {
 		return index;
 	}
 	
+	// Called once a tick, so that the high score shown keeps up with the score.
+	public void updateTopHighScore(int score) {
+		if (PacManBoard.topHighScore < score)
+			PacManBoard.topHighScore = score;
+	}
+
 	public void drawHighScore(Graphics g) {
-		if (PacManBoard.topHighScore < PacManBoard.totalScore)
-			PacManBoard.topHighScore = PacManBoard.totalScore;
-		String score = Integer.toString(PacManBoard.topHighScore);
-		int length = score.length();
-		
-		if (PacManBoard.topHighScore > 0) {
-			for (int i = 0; i < length; i++) {
-				int index = score.charAt((length-1) - i) - '0';
-				Image piece = alphaNumChars.alphaNumImages[0][index];
-				g.drawImage(piece, PacManBoard.dimension * 18 - PacManBoard.dimension * i, PacManBoard.dimension*2, PacManBoard.dimension,
-					PacManBoard.dimension, pacman_board);
-			}
-		}
+		if (PacManBoard.topHighScore > 0)
+			highScoreStrip.draw(g, PacManBoard.topHighScore, 18, 2, pacman_board);
 	}
 	
-	public void updateHighScores() throws FileNotFoundException, UnsupportedEncodingException {
-		PacManBoard.highscores.add(PacManBoard.totalScore);
+	public void updateHighScores(int score) throws FileNotFoundException, UnsupportedEncodingException {
+		PacManBoard.highscores.add(score);
 		Collections.sort(PacManBoard.highscores);
 		
 		
@@ -95,30 +108,14 @@ public class InPlayScoreBoard {
 		writer.close();
 	}
 
-	public void drawScore(Graphics g) {
-		String score = Integer.toString(PacManBoard.totalScore);
-		int length = score.length();
-		
-		if (PacManBoard.totalScore == 0) {
-			Image zero = alphaNumChars.alphaNumImages[0][0];
-			g.drawImage(zero, PacManBoard.dimension * 8, PacManBoard.dimension*2, PacManBoard.dimension,
-					PacManBoard.dimension, pacman_board);
-			g.drawImage(zero, PacManBoard.dimension * 8 - PacManBoard.dimension, PacManBoard.dimension*2, PacManBoard.dimension,
-					PacManBoard.dimension, pacman_board);
-			return;
-		}		
-		
-		for (int i = 0; i < length; i++) {
-			int index = score.charAt((length-1) - i) - '0';
-			Image piece = alphaNumChars.alphaNumImages[0][index];
-			g.drawImage(piece, PacManBoard.dimension * 8 - PacManBoard.dimension * i, PacManBoard.dimension*2, PacManBoard.dimension,
-					PacManBoard.dimension, pacman_board);
-		}
+	public void drawScore(Graphics g, int score) {
+		scoreStrip.draw(g, score, 8, 2, pacman_board);
 	}
 
 	public void createScorePanel() throws FileNotFoundException {
 		createBoard();
 		setScorePanel(char_panel.size(), char_panel.get(0).length());
+		renderScorePanel();
 	}
 
 	private void createBoard() throws FileNotFoundException {
@@ -2,7 +2,6 @@ package pacMan;
 
 import java.awt.Graphics;
 import java.awt.Image;
-import java.awt.Toolkit;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
@@ -10,7 +9,7 @@ import java.util.Scanner;
 
 public class LifeAndFruitManager {
 
-	private Image life = Toolkit.getDefaultToolkit().getImage("images/pacman_left.png");;
+	private Image life = Sprites.get("images/pacman_left.png");;
 	private Image fruit;
 
 	private int lifeColumn;
@@ -27,17 +26,16 @@ public class LifeAndFruitManager {
 		getLifeFruitLocation();
 	}
 
-	public void drawLifeAndFruit(Graphics g, PacManBoard pacman_board) {
-		int dim = PacManBoard.dimension;
+	public void drawLifeAndFruit(Graphics g, PacManBoard pacman_board, int lives) {
+		int dim = PacManBoard.screenDimension;
 		int width = life.getWidth(pacman_board);
 		int height = life.getHeight(pacman_board);
-		int xplus = -(width / 2 - PacManBoard.dimension) / 2;
-		int yplus = -(height / 2 - PacManBoard.dimension) / 2;
+		int xplus = -(width - dim) / 2;
+		int yplus = -(height - dim) / 2;
 
-		for (int i = 0; i < PacManBoard.lives; i++) {
+		for (int i = 0; i < lives; i++) {
 			g.drawImage(life, (lifeColumn * dim + xplus + dim) + 2*i * dim,
-					panelRow * dim + yplus + dim, width / 2, height / 2,
-					pacman_board);
+					panelRow * dim + yplus + dim, pacman_board);
 		}
 	}
 
@@ -0,0 +1,258 @@
+package pacMan;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import pacMan.TyleContainer.Tyle;
+import pacMan.TyleContainer.TyleType;
+
+/**
+ * Where the landmarks of a map are: the two ends of the teleport, PacMan's
+ * spawn, the ghost house, the power-ups, and how many dots there are to eat.
+ * Built once when the map is loaded and shared by every TyleBoard of that
+ * map, so none of these has to be looked for on the board again.
+ *
+ * Positions are {row, column}. Where a map has more than one of a landmark,
+ * the index keeps the one the old board scans settled on: the first teleport
+ * square, and the last spawn and ghost house.
+ *
+ * The index also holds the ways out of every tyle, as a mask with bit
+ * (1 << direction) set for each of GameState.UP, DOWN, LEFT and RIGHT that may
+ * be taken from it. There is one set of masks for PacMan, one for ghosts and
+ * one for ghosts with a density of 0, which may go down through the ghost gate
+ * and up through DOWN_ONLY_SQUAREs. A junction is a tyle a ghost can leave in
+ * three or more directions; everywhere else a ghost that cannot turn back has
+ * at most one way to go.
+ *
+ * Eaten ghosts find their way home by a flow field: for every tyle, the way to
+ * go to get to the ghost home in the fewest moves at a density of 0. It is
+ * searched once, backwards from the home, when the index is built.
+ *
+ * The PathDistances of the map are searched the first time they are asked for,
+ * unless they have already been loaded from a file.
+ */
+public class MazeIndex {
+
+	private int[] teleport_a;
+	private int[] teleport_b;
+	private int[] pacman_spawn;
+	// The top left corner of the ghost house wall.
+	private int[] ghost_house;
+	private final List<int[]> power_ups = new ArrayList<>();
+	private int dots = 0;
+
+	private final int rows;
+	private final int columns;
+	// The tyles PacMan can stand on.
+	private final boolean[] pacman_tyles;
+	private final byte[] pacman_exits;
+	private final byte[] ghost_exits;
+	private final byte[] ghost_home_exits;
+	private final boolean[] junctions;
+	private final boolean[] home_junctions;
+	private final byte[] home_flow;
+	private PathDistances path_distances;
+
+	// board must have every dot and power-up on it.
+	public MazeIndex(TyleBoard board) {
+		rows = board.getRows();
+		columns = board.getColumns();
+		int cells = rows * columns;
+		pacman_tyles = new boolean[cells];
+		pacman_exits = new byte[cells];
+		ghost_exits = new byte[cells];
+		ghost_home_exits = new byte[cells];
+		junctions = new boolean[cells];
+		home_junctions = new boolean[cells];
+		home_flow = new byte[cells];
+
+		for (int i = 0; i < board.getRows(); i++) {
+			for (int j = 0; j < board.getColumns(); j++) {
+				Tyle tyle = board.get(i, j);
+				if (tyle == Tyle.TELEPORT_SQUARE_A && teleport_a == null)
+					teleport_a = new int[] { i, j };
+				else if (tyle == Tyle.TELEPORT_SQUARE_B && teleport_b == null)
+					teleport_b = new int[] { i, j };
+				else if (tyle == Tyle.PACMAN_SPAWN_TYLE)
+					pacman_spawn = new int[] { i, j };
+				else if (tyle == Tyle.GHOST_WALL_TOP_LEFT)
+					ghost_house = new int[] { i, j };
+				else if (tyle == Tyle.POWERUP)
+					power_ups.add(new int[] { i, j });
+
+				if (tyle == Tyle.DOT_SQUARE || tyle == Tyle.POWERUP)
+					dots++;
+
+				setExits(board, i, j);
+			}
+		}
+		setHomeFlow(board);
+	}
+
+	// A breadth first search out from the ghost home, following each move
+	// backwards, so that each tyle is reached first along one of its shortest
+	// ways home. Going off either end of the teleport comes out at the other.
+	private void setHomeFlow(TyleBoard board) {
+		Arrays.fill(home_flow, (byte) -1);
+		if (ghost_house == null)
+			return;
+		int home = getGhostHomeRow() * columns + getGhostHomeColumn();
+		int end_a = teleport_a == null ? -1 : teleport_a[0] * columns + teleport_a[1];
+		int end_b = teleport_b == null ? -1 : teleport_b[0] * columns + teleport_b[1];
+		boolean[] reached = new boolean[home_flow.length];
+		int[] queue = new int[home_flow.length];
+		int head = 0, tail = 0;
+		reached[home] = true;
+		queue[tail++] = home;
+		while (head < tail) {
+			int cell = queue[head++];
+			int row = cell / columns, column = cell % columns;
+			for (int direction = 0; direction < 4; direction++) {
+				int from_row = row - GameState.DY[direction], from_column = column - GameState.DX[direction];
+				if (from_row < 0 || from_row >= rows || from_column < 0 || from_column >= columns)
+					continue;
+				int from = from_row * columns + from_column;
+				TyleType type = board.get(from_row, from_column).type;
+				if (reached[from] || (ghost_home_exits[from] & (1 << direction)) == 0 || type == TyleType.WALL
+						|| type == TyleType.UNREACHABLE)
+					continue;
+				reached[from] = true;
+				home_flow[from] = (byte) direction;
+				queue[tail++] = from;
+			}
+			if (end_a >= 0 && end_b >= 0 && (cell == end_a || cell == end_b)) {
+				int from = cell == end_a ? end_b : end_a;
+				if (!reached[from]) {
+					reached[from] = true;
+					home_flow[from] = (byte) (cell == end_a ? GameState.RIGHT : GameState.LEFT);
+					queue[tail++] = from;
+				}
+			}
+		}
+	}
+
+	private void setExits(TyleBoard board, int row, int column) {
+		int cell = row * columns + column;
+		TyleType type = board.get(row, column).type;
+		pacman_tyles[cell] = type != TyleType.UNREACHABLE && type != TyleType.WALL && type != TyleType.GHOSTGATE;
+		for (int direction = 0; direction < 4; direction++) {
+			int dx = GameState.DX[direction];
+			int dy = GameState.DY[direction];
+			Tyle next = board.get(row + dy, column + dx);
+			if (next.type == TyleType.UNREACHABLE || next.type == TyleType.WALL)
+				continue;
+			ghost_home_exits[cell] |= 1 << direction;
+			if (next.type != TyleType.GHOSTGATE)
+				pacman_exits[cell] |= 1 << direction;
+			if (!(next.type == TyleType.GHOSTGATE && dy == 1) && !(next == Tyle.DOWN_ONLY_SQUARE && dy == -1))
+				ghost_exits[cell] |= 1 << direction;
+		}
+		junctions[cell] = Integer.bitCount(ghost_exits[cell]) >= 3;
+		home_junctions[cell] = Integer.bitCount(ghost_home_exits[cell]) >= 3;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+	public boolean isPacManTyle(int row, int column) {
+		return pacman_tyles[row * columns + column];
+	}
+
+	public int getPacManExits(int row, int column) {
+		return pacman_exits[row * columns + column];
+	}
+
+	// density is the ghost's density, 1 or 0.
+	public int getGhostExits(int row, int column, int density) {
+		return density == 1 ? ghost_exits[row * columns + column] : ghost_home_exits[row * columns + column];
+	}
+
+	public boolean isJunction(int row, int column, int density) {
+		return density == 1 ? junctions[row * columns + column] : home_junctions[row * columns + column];
+	}
+
+	/**
+	 * @return the square at the other end of the teleport from the one given,
+	 *         or null if the map has no such square. The array must not be
+	 *         changed.
+	 */
+	public int[] getTeleportExit(Tyle teleport) {
+		if (teleport == Tyle.TELEPORT_SQUARE_A)
+			return teleport_b;
+		if (teleport == Tyle.TELEPORT_SQUARE_B)
+			return teleport_a;
+		return null;
+	}
+
+	public int getPacManSpawnRow() {
+		return pacman_spawn == null ? 0 : pacman_spawn[0];
+	}
+
+	public int getPacManSpawnColumn() {
+		return pacman_spawn == null ? 0 : pacman_spawn[1];
+	}
+
+	// The ghost house in pixels, as the top left corner of its wall. Each ghost's
+	// spawn, exit and home are set from here.
+	public int getGhostHouseX() {
+		return ghost_house[1] * GameState.dimension;
+	}
+
+	public int getGhostHouseY() {
+		return ghost_house[0] * GameState.dimension;
+	}
+
+	// The square in the middle of the ghost house that eaten ghosts go back to.
+	public int getGhostHomeRow() {
+		return ghost_house[0] + 2;
+	}
+
+	public int getGhostHomeColumn() {
+		return ghost_house[1] + 3;
+	}
+
+	public int getGhostHomeX() {
+		return getGhostHomeColumn() * GameState.dimension;
+	}
+
+	public int getGhostHomeY() {
+		return getGhostHomeRow() * GameState.dimension;
+	}
+
+	// The way to go from row and column to get home soonest, or -1 from the home
+	// itself and from anywhere home cannot be reached.
+	public int getHomeDirection(int row, int column) {
+		return home_flow[row * columns + column];
+	}
+
+	// The power-ups in row order, whether or not they have been eaten.
+	public List<int[]> getPowerUpPositions() {
+		return Collections.unmodifiableList(power_ups);
+	}
+
+	// Dots and power-ups on the board at the start of a level.
+	public int getDotCount() {
+		return dots;
+	}
+
+	public synchronized PathDistances getPathDistances() {
+		if (path_distances == null)
+			path_distances = PathDistances.build(this);
+		return path_distances;
+	}
+
+	// Maps the path distances in from cache, searching them and saving them there
+	// if they are not cached for this map yet.
+	public synchronized void loadPathDistances(Path cache) {
+		path_distances = PathDistances.load(this, cache);
+	}
+
+}
@@ -0,0 +1,73 @@
+package pacMan;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+/**
+ * Off-screen image of the whole tyle board. The board is drawn into it once,
+ * after which only the cells recorded in DirtyTyles are redrawn. Painting the
+ * maze is then a single image copy.
+ */
+public class MazeLayer {
+
+	private final TyleBoard tyle_board;
+	private final DirtyTyles dirty_tyles;
+	private final BufferedImage layer;
+	private final Graphics2D layer_graphics;
+	private final int rows;
+	private final int columns;
+
+	public MazeLayer(TyleBoard tyle_board, DirtyTyles dirty_tyles) {
+		this.tyle_board = tyle_board;
+		this.dirty_tyles = dirty_tyles;
+		this.rows = tyle_board.getRows();
+		this.columns = tyle_board.getColumns();
+		this.layer = Sprites.createImage(columns * PacManBoard.screenDimension, rows * PacManBoard.screenDimension);
+		this.layer_graphics = layer.createGraphics();
+		layer_graphics.setComposite(AlphaComposite.Src);
+
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				drawTyle(i, j);
+			}
+		}
+		dirty_tyles.clear();
+	}
+
+	// Redraw every cell that changed since the last call.
+	public void update() {
+		synchronized (dirty_tyles) {
+			if (dirty_tyles.size() == 0)
+				return;
+
+			for (int i = 0; i < dirty_tyles.size(); i++) {
+				drawTyle(dirty_tyles.getRow(i), dirty_tyles.getColumn(i));
+			}
+			dirty_tyles.clear();
+		}
+	}
+
+	public void drawBoard(Graphics g, ImageObserver observer) {
+		g.drawImage(layer, 0, 0, observer);
+	}
+
+	// Draw the two outer columns on each side again, so characters passing
+	// through the teleport paths disappear behind them.
+	public void drawBorder(Graphics g, ImageObserver observer) {
+		int dim = PacManBoard.screenDimension;
+		int height = rows * dim;
+		int right = (columns - 2) * dim;
+
+		g.drawImage(layer, 0, 0, 2 * dim, height, 0, 0, 2 * dim, height, observer);
+		g.drawImage(layer, right, 0, right + 2 * dim, height, right, 0, right + 2 * dim, height, observer);
+	}
+
+	private void drawTyle(int row, int column) {
+		layer_graphics.drawImage(TyleImageCache.get(tyle_board.get(row, column)), column * PacManBoard.screenDimension,
+				row * PacManBoard.screenDimension, null);
+	}
+
+}
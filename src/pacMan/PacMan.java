@@ -1,9 +1,6 @@
 package pacMan;
 
-import java.awt.Image;
-import java.awt.Toolkit;
 import java.io.IOException;
-import java.util.Timer;
 
 import pacMan.TyleContainer.Tyle;
 import pacMan.TyleContainer.TyleType;
@@ -26,32 +23,40 @@ public class PacMan {
 
 	}
 
-	private static final PacManBoard pcBoard = null;
-
 	public Name name = Name.PACMAN;
 	public State state = State.DEFAULT;
 	private Visibility visibility = Visibility.VISIBLE;
 
-	private String dyingSpriteSheet = "images/PacManDyingSprite.png";
 	public static String[][] filename_appendix = { { "_closed.png" }, { "_up.png", "_up1.png", },
 			{ "_down.png", "_down1.png", }, { "_left.png", "_left1.png", }, { "_right.png", "_right1.png", } };
-	public Image character = Toolkit.getDefaultToolkit().getImage(name.filename_prefix + filename_appendix[0][0]);
 	public int image_frame = 0;
 	
-	private Animator spriteAnimator = new Animator();
-
-	private Tyle[][] tyle_board;
+	// PacMan's current image: the direction he faces, or CLOSED for the closed
+	// mouth, and the frame of his animation. While he is DEAD, dying_frame is the
+	// frame of the dying animation instead. CharacterSprites.getImage turns these
+	// into the image the PacManBoard draws.
+	public static final int CLOSED = -1;
+	private static final int DYING_FRAMES = 11;
+	private int sprite_direction = CLOSED;
+	private int sprite_frame = 0;
+	private int dying_frame = 0;
+	private FrameCounter dying_animator = new FrameCounter();
+
+	private TyleBoard tyle_board;
+	private DirtyTyles dirty_tyles;
 	
 	public boolean isBlueGhost;
 	
 	private int dotSoundCount = 0;
 	private boolean isPlayingSound;
 	
-	private char spawn_char = 'N';
 	private int spawnX;
 	private int spawnY;
 	private int y;
 	private int x;
+	// Position at the start of the current tick, for drawing between ticks.
+	private int previousX;
+	private int previousY;
 	private int curRow;
 	private int curCol;
 	private final int dimension = 16;
@@ -63,29 +68,52 @@ public class PacMan {
 	private int curSpeed = 0;
 	private int start_count = 0;
 	private int speed_percent = 80;
-	private int frames_stalled = 0;
 		
-	public PacMan(Tyle[][] tyle_board) {
+	public PacMan(TyleBoard tyle_board, DirtyTyles dirty_tyles) {
 		this.tyle_board = tyle_board;
+		this.dirty_tyles = dirty_tyles;
 		setSpawnLocation();
 		this.x = spawnX;
 		this.y = spawnY;
-		this.curCol = x / PacManBoard.dimension;
-		this.curRow = y / PacManBoard.dimension;
+		this.curCol = x / GameState.dimension;
+		this.curRow = y / GameState.dimension;
+	}
+	
+	// Copies everything that changes during a game from other, which must be on
+	// the same map.
+	public void copyFrom(PacMan other) {
+		state = other.state;
+		visibility = other.visibility;
+		image_frame = other.image_frame;
+		sprite_direction = other.sprite_direction;
+		sprite_frame = other.sprite_frame;
+		dying_frame = other.dying_frame;
+		dying_animator.copyFrom(other.dying_animator);
+		isBlueGhost = other.isBlueGhost;
+		dotSoundCount = other.dotSoundCount;
+		isPlayingSound = other.isPlayingSound;
+		spawnX = other.spawnX;
+		spawnY = other.spawnY;
+		x = other.x;
+		y = other.y;
+		previousX = other.previousX;
+		previousY = other.previousY;
+		curRow = other.curRow;
+		curCol = other.curCol;
+		curDeltaX = other.curDeltaX;
+		curDeltaY = other.curDeltaY;
+		newDX = other.newDX;
+		newDY = other.newDY;
+		speed = other.speed;
+		curSpeed = other.curSpeed;
+		start_count = other.start_count;
+		speed_percent = other.speed_percent;
 	}
 	
 	public void setSpawnLocation() {
-		int rows = tyle_board.length;
-		int columns = tyle_board[0].length;
-		for (int i = 0; i < rows; i++) {
-			for (int j = 0; j < columns; j++) {
-				if (tyle_board[i][j].c == spawn_char) {
-					spawnX = j * PacManBoard.dimension + PacManBoard.dimension / 2;
-					spawnY = i * PacManBoard.dimension;
-				}
-			}
-		}
-		
+		MazeIndex index = tyle_board.getIndex();
+		spawnX = index.getPacManSpawnColumn() * GameState.dimension + GameState.dimension / 2;
+		spawnY = index.getPacManSpawnRow() * GameState.dimension;
 	}
 
 	public void resetPacMan() {
@@ -104,21 +132,23 @@ public class PacMan {
 		start_count = -1;
 	}
 	
-	public void setSpeed(Tyle[][] tyle_board) {
-		if (tyle_board[y / PacManBoard.dimension][x / PacManBoard.dimension] == Tyle.DOT_SQUARE)
+	public void setSpeed(TyleBoard tyle_board) {
+		if (tyle_board.get(y / GameState.dimension, x / GameState.dimension) == Tyle.DOT_SQUARE)
 			speed_percent = 50;
 		else
 			speed_percent = 80;
 	}
 
-	public boolean updateDots(Tyle[][] tyle_board) throws IOException {
-		if (tyle_board[y / dimension][x / dimension].type == TyleType.DOT) {
-			tyle_board[y / dimension][x / dimension] = Tyle.BLACK_SQUARE;
+	// sound is whether the game plays sounds.
+	public boolean updateDots(TyleBoard tyle_board, boolean sound) throws IOException {
+		if (tyle_board.get(y / dimension, x / dimension).type == TyleType.DOT) {
+			tyle_board.eat(y / dimension, x / dimension);
+			dirty_tyles.mark(y / dimension, x / dimension);
 			setNewSquareSpeed(71, y / dimension, x / dimension);
 			if (dotSoundCount == 0) {
 				isPlayingSound = true;
-				Audio audio = new Audio();
-				audio.dotCaptureSound();
+				if (sound)
+					Audio.playDotCapture();
 			}
 			return true;
 		}
@@ -143,27 +173,12 @@ public class PacMan {
 		}
 	}
 
-	public void teleport(Tyle type, Tyle[][] tyle_board) {
-		if (type == Tyle.TELEPORT_SQUARE_A && curDeltaX == -1) {
-			for (int i = 0; i < tyle_board.length; i++) {
-				for (int j = 0; j < tyle_board[0].length; j++) {
-					if (tyle_board[i][j] == Tyle.TELEPORT_SQUARE_B) {
-						this.x = j * dimension;
-						this.y = i * dimension;
-						return;
-					}
-				}
-			}
-		}
-		if (type == Tyle.TELEPORT_SQUARE_B && curDeltaX == 1) {
-			for (int i = 0; i < tyle_board.length; i++) {
-				for (int j = 0; j < tyle_board[0].length; j++) {
-					if (tyle_board[i][j] == Tyle.TELEPORT_SQUARE_A) {
-						this.x = j * dimension;
-						this.y = i * dimension;
-						return;
-					}
-				}
+	public void teleport(Tyle type, TyleBoard tyle_board) {
+		if ((type == Tyle.TELEPORT_SQUARE_A && curDeltaX == -1) || (type == Tyle.TELEPORT_SQUARE_B && curDeltaX == 1)) {
+			int[] exit = tyle_board.getIndex().getTeleportExit(type);
+			if (exit != null) {
+				this.x = exit[1] * dimension;
+				this.y = exit[0] * dimension;
 			}
 		}
 	}
@@ -179,31 +194,33 @@ public class PacMan {
 
 	public void rotateCharacter() throws IOException {
 
+		// The direction and animation frame index the CharacterSprites tables.
 		if (state != State.DEAD) {
-			int[][] delta = { { 0, -1 }, { 0, 1 }, { -1, 0 }, { 1, 0 } };
+			int direction = GameState.getDirection(curDeltaX, curDeltaY);
 	
-			for (int i = 1; i < 5; i++) {
-				if (curDeltaX == delta[i-1][0] && curDeltaY == delta[i-1][1]) {
-					String filename = new String();
-					if (curSpeed != 0) {
-						if (image_frame / 4 == 2)
-							filename = name.filename_prefix + filename_appendix[0][0];
-						else
-							filename = name.filename_prefix + filename_appendix[i][image_frame / 4];
-					}
+			if (direction >= 0) {
+				if (curSpeed != 0) {
+					if (image_frame / 4 == 2)
+						sprite_direction = CLOSED;
 					else
-						filename = name.filename_prefix + filename_appendix[i][0];
-					character = Toolkit.getDefaultToolkit().getImage(filename);
+						setSprite(direction, image_frame / 4);
 				}
-				else if (curSpeed == 0 && curDeltaX == 0 && curDeltaY == 0)
-					character = Toolkit.getDefaultToolkit().getImage(name.filename_prefix + filename_appendix[0][0]);
+				else
+					setSprite(direction, 0);
 			}
+			else if (curSpeed == 0 && curDeltaX == 0 && curDeltaY == 0)
+				sprite_direction = CLOSED;
 		} else {
-			character = spriteAnimator.generateSpriteAnimation(3, 11, dyingSpriteSheet, pcBoard);
+			dying_frame = dying_animator.nextFrame(3, DYING_FRAMES);
 		}
 	}
 
-	public void update(int dx, int dy, Tyle[][] tyle_board) {
+	private void setSprite(int direction, int frame) {
+		sprite_direction = direction;
+		sprite_frame = frame;
+	}
+
+	public void update(int dx, int dy, TyleBoard tyle_board) {
 		if (dx != newDX || dy != newDY) {
 			newDX = dx;
 			newDY = dy;
@@ -223,9 +240,9 @@ public class PacMan {
 		updateY(curDeltaY);
 	}
 	
-	public boolean getIfValid(int dx, int dy, Tyle[][] tyle_board) {
-		if (tyle_board[getY() / getDimension()][getX() / getDimension()].type == TyleType.TELEPORT) {
-			teleport(tyle_board[getY() / getDimension()][getX() / getDimension()], tyle_board);
+	public boolean getIfValid(int dx, int dy, TyleBoard tyle_board) {
+		if (tyle_board.get(getY() / getDimension(), getX() / getDimension()).type == TyleType.TELEPORT) {
+			teleport(tyle_board.get(getY() / getDimension(), getX() / getDimension()), tyle_board);
 		}
 
 		if (isValid(dx, dy, tyle_board)) {
@@ -235,18 +252,14 @@ public class PacMan {
 		return false;
 	}
 	
-	public boolean isValid(int dx, int dy, Tyle[][] tyle_board) {
-		int column = getX() / dimension + dx;
-		int row = getY() / dimension + dy;
-		
-		int num_columns = tyle_board[0].length, num_rows = tyle_board.length;
-		if (column < 0 || column >= num_columns || row < 0 || row >= num_rows)
-			return false;
-		if (tyle_board[row][column].type == TyleType.UNREACHABLE || tyle_board[row][column].type == TyleType.WALL)
-			return false;
-		if (tyle_board[row][column].type == TyleType.GHOSTGATE)
-			return false;
-		return true;
+	public boolean isValid(int dx, int dy, TyleBoard tyle_board) {
+		int direction = GameState.getDirection(dx, dy);
+		// Standing still is allowed anywhere PacMan can be.
+		if (direction < 0)
+			return true;
+		// PacMan may not go into a WALL, UNREACHABLE or GHOSTGATE tyle.
+		int exits = tyle_board.getIndex().getPacManExits(getY() / dimension, getX() / dimension);
+		return (exits & (1 << direction)) != 0;
 	}
 
 	
@@ -294,19 +307,33 @@ public class PacMan {
 		return y;
 	}
 
+	public void storePreviousPosition() {
+		previousX = x;
+		previousY = y;
+	}
+
+	public int getPreviousX() {
+		return previousX;
+	}
+
+	public int getPreviousY() {
+		return previousY;
+	}
+
 	public double getSpeed() {
 		return curSpeed;
 	}
 
-	public Image getImage() {
-		return character;
+	public int getSpriteDirection() {
+		return sprite_direction;
 	}
-	
-	public void changeImage(String filename, Image image) {
-		if (image == null)
-			character = Toolkit.getDefaultToolkit().getImage(filename);
-		else
-			character = image;
+
+	public int getSpriteFrame() {
+		return sprite_frame;
+	}
+
+	public int getDyingFrame() {
+		return dying_frame;
 	}
 
 	public int getDimension() {
@@ -333,19 +360,9 @@ public class PacMan {
 		this.state = state;
 	}
 
-	public int getFramesStalled() {
-		return frames_stalled;
-	}
-	
-	public void changeFramesStalled(int num) {
-		frames_stalled = num;
-	}
-	
+	// Whether PacMan stands still this frame, frames_passed frames after his
+	// speed percent last changed.
 	public boolean isStalled(int frames_passed) {
-		double ratio = (100 - speed_percent) / 100.0;
-		if ((frames_stalled * 1.0) / frames_passed < ratio)
-			return true;
-		else
-			return false;
+		return SpeedPattern.isStalled(speed_percent, frames_passed);
 	}
 }
\ No newline at end of file
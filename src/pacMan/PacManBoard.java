@@ -11,44 +11,65 @@ import java.util.Scanner;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 
-import java.awt.Toolkit;
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
 import java.awt.GridLayout;
 import java.awt.Image;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 
-import pacMan.TyleContainer.Tyle;
-
+/**
+ * Swing view of a GameState. The game itself is played by the GameState; this
+ * panel reads the keyboard, steps the game from a GameLoop and draws it.
+ */
 public class PacManBoard extends JPanel implements KeyListener {
 
-	public static int FPS = 16;//TEMP VARIABLE!!!!!!!!!!
-	public static int TOTAL_DOTS = 0;
-	public static int totalScore = 0;
+	// Run with -Dpacman.activeRendering=true to present frames from a dedicated
+	// render thread instead of through Swing repaints.
+	public static boolean activeRendering = Boolean.getBoolean("pacman.activeRendering");
+	// Run with -Dpacman.speed=4 to play at four times real time, or with
+	// -Dpacman.speed=0 to play as fast as the CPU allows. Game logic is the same
+	// at every speed.
+	public static double simulationSpeed = Double.parseDouble(System.getProperty("pacman.speed", "1"));
+	// Run with -Dpacman.render=false to play without a window, for example to
+	// evaluate bots. A HeadlessRenderer still gets every frame if one is set.
+	public static boolean rendering = Boolean.parseBoolean(System.getProperty("pacman.render", "true"));
 	public static List<Integer> highscores = new ArrayList<>();
 	public static int topHighScore = 0;
-	public static int lives = 0;
 	
 	public static Scanner in = new Scanner(System.in);
-	public static final int dimension = 16;
-
-	private PacMan pacman;
-	private Ghost[] ghosts = new Ghost[4];
+	public static final int dimension = GameState.dimension;
+	// Run with -Dpacman.scale=2 (up to 4) to draw the game at an integer multiple
+	// of its original size. Game logic always works in unscaled board pixels;
+	// only drawing multiplies positions by scale.
+	public static final int scale = Math.max(1, Math.min(4, Integer.getInteger("pacman.scale", 1)));
+	public static final int screenDimension = dimension * scale;
+
+	private GameState gameState;
 	
-	public static JFrame frame = new JFrame();
-	private final ArrayList<String> board = new ArrayList<>();
-	private Tyle[][] tyle_board;
+	// There is no frame when running with java.awt.headless=true.
+	public static JFrame frame = GraphicsEnvironment.isHeadless() || !rendering ? null : new JFrame();
+	private static ActiveRenderer activeRenderer;
+	private static HeadlessRenderer headlessRenderer;
+	private static volatile GameLoop gameLoop;
+	private static volatile Color backgroundColor = Color.BLUE;
+	private List<String> board;
+	private MazeLayer mazeLayer;
 	
 	private InPlayScoreBoard inPlayScoreBoard;
+	private ScoreBoard scoreBoard;
 	private BetweenLevelHandler betweenLevelHandler;
 	private LifeAndFruitManager lifeFruitManager = new LifeAndFruitManager();
 	
-	private Image blackLines = Toolkit.getDefaultToolkit().createImage("images/blackLines.png");
+	private Image blackLines;
 
-	private List<int[]> powerup_pos = new ArrayList<int[]>();
+	// Held by the game thread while it ticks or sets up a game, and by whichever
+	// thread draws a frame, so a frame always shows the state between two ticks.
+	private final Object frame_lock = new Object();
 
-	private int[] delta = {-1, 0};
+	// The direction of the last arrow key pressed.
+	private volatile int direction = GameState.LEFT;
 	GridLayout bigBoard = new GridLayout(2,1);
 	
 	
@@ -64,113 +85,121 @@ public class PacManBoard extends JPanel implements KeyListener {
 	}
 	
 	public void createBoard() throws FileNotFoundException {
-		getBoard("textBoard.txt");
-	}
-	
-	public void getBoard(String file_name) throws FileNotFoundException {
-		File file = new File(file_name);
-		Scanner in = new Scanner(file);
-
-		while (in.hasNextLine()) {
-			board.add(in.nextLine());
-		}
-
-		in.close();
+		board = GameState.readBoard("textBoard.txt");
 	}
 
 	public void paint(Graphics g) {
+		composeFrame(g);
+	}
 
-		drawGameBoard(g);
-
-		drawPacMan(g);
-		drawGhosts(g);
-		drawGameBorder(g);
-		drawGhostTargets(g);
+	// Draws one complete frame. Used by both the Swing paint path and the
+	// active render loop.
+	public void composeFrame(Graphics g) {
+		// Apart from taking the tyles a tick marked as changed, drawing only reads
+		// the game, and the lock keeps a tick or a new game from changing it
+		// halfway through a frame.
+		synchronized (frame_lock) {
+			long time = TickProfiler.start();
+
+			mazeLayer.update();
+			mazeLayer.drawBoard(g, this);
+
+			drawPacMan(g);
+			drawGhosts(g);
+			mazeLayer.drawBorder(g, this);
+			drawGhostTargets(g);
 		
-		inPlayScoreBoard.drawScorePanel(g);
-		inPlayScoreBoard.drawScore(g);
-		inPlayScoreBoard.drawHighScore(g);
-		betweenLevelHandler.drawREADY(g);
-		betweenLevelHandler.drawGameOver(g);
-		try {
+			inPlayScoreBoard.drawScorePanel(g);
+			inPlayScoreBoard.drawScore(g, gameState.getScore());
+			inPlayScoreBoard.drawHighScore(g);
+			betweenLevelHandler.drawREADY(g);
+			betweenLevelHandler.drawGameOver(g);
 			betweenLevelHandler.drawScoreBoard(g);
-		} catch (IOException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		lifeFruitManager.drawLifeAndFruit(g, this);
+			lifeFruitManager.drawLifeAndFruit(g, this, gameState.getLives());
 		
-		g.drawImage(blackLines, 0, 0, dimension * board.get(0).length(), dimension * board.size(), this);
-	}
-
-	private void drawGameBoard(Graphics g) {
-		int rows = board.size();
-		int columns = board.get(0).length();
-		for (int i = 0; i < rows; i++) {
-			for (int j = 0; j < columns; j++) {
-				Image piece = Toolkit.getDefaultToolkit().getImage(tyle_board[i][j].filename);
-				g.drawImage(piece, dimension * j, dimension * i, dimension, dimension, this);
-			}
-		}
-	}
-
-	private void drawGameBorder(Graphics g) {
-		int rows = board.size();
-		int columns = board.get(0).length();
-		for (int i = 0; i < rows; i++) {
-			Image piece = Toolkit.getDefaultToolkit().getImage(tyle_board[i][0].filename);
-			g.drawImage(piece, 0, dimension * i, dimension, dimension, this);
-			Image piece2 = Toolkit.getDefaultToolkit().getImage(tyle_board[i][1].filename);
-			g.drawImage(piece2, dimension, dimension * i, dimension, dimension, this);
-			Image piece3 = Toolkit.getDefaultToolkit().getImage(tyle_board[i][columns - 1].filename);
-			g.drawImage(piece3, (columns - 1) * dimension, dimension * i, dimension, dimension, this);
-			Image piece4 = Toolkit.getDefaultToolkit().getImage(tyle_board[i][columns - 2].filename);
-			g.drawImage(piece4, (columns - 2) * dimension, dimension * i, dimension, dimension, this);
+			g.drawImage(blackLines, 0, 0, this);
+			TickProfiler.lap(TickProfiler.Phase.RENDER, time);
 		}
 	}
 
+	// Sprites are already scaled to screen size, so each character is centred on
+	// its tyle and copied without scaling.
 	private void drawPacMan(Graphics g) {
-		int width = pacman.getImage().getWidth(this);
-		int height = pacman.getImage().getHeight(this);
-		int xplus = -(width / 2 - dimension) / 2;
-		int yplus = -(height / 2 - dimension) / 2;
+		PacMan pacman = gameState.getPacMan();
+		Image image = CharacterSprites.getImage(pacman);
+		int width = image.getWidth(this);
+		int height = image.getHeight(this);
+		int xplus = -(width - screenDimension) / 2;
+		int yplus = -(height - screenDimension) / 2;
+		float alpha = getInterpolation();
 		
 		if (pacman.getVisibility() == PacMan.Visibility.VISIBLE)
-			g.drawImage(pacman.getImage(), pacman.getX() + xplus, pacman.getY() + yplus, width / 2, height / 2, this);
+			g.drawImage(image, interpolate(pacman.getPreviousX(), pacman.getX(), alpha) + xplus,
+					interpolate(pacman.getPreviousY(), pacman.getY(), alpha) + yplus, this);
 	}
 
 	private void drawGhosts(Graphics g) {
+		Ghost[] ghosts = gameState.getGhosts();
+		float alpha = getInterpolation();
 		for (int i = 0; i < ghosts.length; i++) {
 			Ghost ghost = ghosts[i];
 			if (ghost.getVisibility() == Ghost.Visibility.NOT_VISIBLE)
 				continue;
-			int width = ghost.getImage().getWidth(this);
-			int height = ghost.getImage().getHeight(this);
-			int xplus = -(width / 2 - dimension) / 2;
-			int yplus = -(height / 2 - dimension) / 2;
-
-			g.drawImage(ghost.getImage(), ghost.getX() + xplus, ghost.getY() + yplus, width / 2, height / 2, this);
+			Image image = CharacterSprites.getImage(ghost);
+			int width = image.getWidth(this);
+			int height = image.getHeight(this);
+			int xplus = -(width - screenDimension) / 2;
+			int yplus = -(height - screenDimension) / 2;
+
+			g.drawImage(image, interpolate(ghost.getPreviousX(), ghost.getX(), alpha) + xplus,
+					interpolate(ghost.getPreviousY(), ghost.getY(), alpha) + yplus, this);
 		}
 	}
+
+	// Frames drawn while the game loop runs fall between two ticks. Headless
+	// frames are drawn straight after a tick, so they show that tick exactly.
+	private static float getInterpolation() {
+		GameLoop loop = gameLoop;
+		if (loop == null || headlessRenderer != null)
+			return 1;
+		return loop.getInterpolation();
+	}
+
+	// Screen position of a character part of the way from where it was at the
+	// previous tick to where it is now. Jumps longer than a tyle, like a
+	// teleport or a reset, are drawn where they land.
+	private static int interpolate(int previous, int current, float alpha) {
+		if (Math.abs(current - previous) > dimension)
+			return current * scale;
+		return Math.round((previous + (current - previous) * alpha) * scale);
+	}
 	
 	private void drawGhostTargets(Graphics g) {
+		Ghost[] ghosts = gameState.getGhosts();
 		for (int i = 0; i < ghosts.length; i++) {
 			Ghost ghost = ghosts[i];
-			ghost.updateTargetSquare();
 			if (ghost.getVisibility() == Ghost.Visibility.NOT_VISIBLE)
 				continue;
-			int width = ghost.targetSquare.getWidth(this);
-			int height = ghost.targetSquare.getHeight(this);
+			Image targetSquare = CharacterSprites.ghost_targets[ghost.getGhostName().ordinal()];
+			int width = targetSquare.getWidth(this);
+			int height = targetSquare.getHeight(this);
 			int xplus = -(width / 4 - dimension) / 4;
 			int yplus = -(height / 4 - dimension) / 4;
 
-//			g.drawImage(ghost.targetSquare, ghost.updateTargetSquare()[0] + xplus, ghost.updateTargetSquare()[1] + yplus, width / 4, height / 4, this);
+//			g.drawImage(targetSquare, ghost.updateTargetSquare()[0] + xplus, ghost.updateTargetSquare()[1] + yplus, width / 4, height / 4, this);
 		}
 	}
 
 	private void setFrame(JFrame frame) {
-		int xDimension = board.get(0).length() * dimension;
-		int yDimension = board.size() * dimension + 32;
+		int xDimension = getBoardWidth();
+		int yDimension = getBoardHeight() + 32 * scale;
+
+		if (frame == null)
+			return;
+		if (activeRendering) {
+			setActiveFrame(frame, xDimension, yDimension);
+			return;
+		}
 
 		frame.setSize(xDimension, yDimension);
 		frame.getContentPane().add(this);
@@ -181,107 +210,127 @@ public class PacManBoard extends JPanel implements KeyListener {
 		frame.setResizable(false);
 		frame.addKeyListener(this);
 	}
-	
-	public void setTyleBoard() {
-		int boardRows = board.size();
-		int boardColumns = board.get(0).length();
-		tyle_board = new Tyle[boardRows][boardColumns];
-		for (int i = 0; i < boardRows; i++) {
-			for (int j = 0; j < boardColumns; j++) {
-				for (Tyle tyle : Tyle.values()) {
-					if (tyle.c == board.get(i).charAt(j)) {
-						tyle_board[i][j] = tyle;
-						if (board.get(i).charAt(j) == 'o' || board.get(i).charAt(j) == '@')
-							TOTAL_DOTS++;
-					}
-				}
-			}
-		}
+
+	// The active frame holds a Canvas that is only drawn by the ActiveRenderer,
+	// so it is set up once and reused for every game.
+	private void setActiveFrame(JFrame frame, int xDimension, int yDimension) {
+		if (activeRenderer != null)
+			return;
+
+		activeRenderer = new ActiveRenderer(this);
+		frame.setIgnoreRepaint(true);
+		frame.setSize(xDimension, yDimension);
+		frame.getContentPane().add(activeRenderer.getCanvas());
+		frame.setLocationRelativeTo(null);
+		frame.setBackground(Color.BLUE);
+		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		frame.setVisible(true);
+		frame.setResizable(false);
+		frame.addKeyListener(this);
+		activeRenderer.getCanvas().addKeyListener(this);
+		activeRenderer.getCanvas().requestFocus();
+		activeRenderer.start();
 	}
-	
-	private void setScorePanel() throws FileNotFoundException {
-		inPlayScoreBoard.createScorePanel();
+
+	// Ask for the board to be drawn again. The active render loop already draws
+	// every frame, so this only does something on the Swing repaint path.
+	public static void repaintBoard() {
+		if (headlessRenderer != null)
+			headlessRenderer.renderFrame();
+		else if (activeRenderer == null && frame != null)
+			frame.repaint();
 	}
 
-	public void getPowerUpLocations(int boardRows, int boardColumns) {
-		for (int i = 0; i < boardRows; i++) {
-			for (int j = 0; j < boardColumns; j++) {
-				if (tyle_board[i][j] == Tyle.POWERUP) {
-					int[] position = new int[2];
-					position[0] = i;
-					position[1] = j;
-					powerup_pos.add(position);
-				}
-			}
-		}
+	// Draw every frame off-screen into the given renderer instead of a window.
+	public static void setHeadlessRenderer(HeadlessRenderer renderer) {
+		headlessRenderer = renderer;
+	}
+
+	public static void setBackgroundColor(Color color) {
+		backgroundColor = color;
+		if (frame != null)
+			frame.setBackground(color);
+	}
+
+	public static Color getBackgroundColor() {
+		return backgroundColor;
+	}
+
+	// Size of the drawn board in screen pixels.
+	public int getBoardWidth() {
+		return board.get(0).length() * screenDimension;
+	}
+
+	public int getBoardHeight() {
+		return board.size() * screenDimension;
 	}
 	
-	private void setGhosts(Tyle[][] tyleBoard) {
-		ghosts[0] = new Blinky(tyleBoard);
-		ghosts[1] = new Pinky(tyleBoard);
-		ghosts[2] = new Inky(tyleBoard);
-		ghosts[3] = new Clyde(tyleBoard);
-		
-		for (int i = 0; i < 4; i++) {
-			ghosts[i].setBlinky(ghosts[0]);
-		}
+	private void setScorePanel() throws FileNotFoundException {
+		inPlayScoreBoard.createScorePanel();
 	}
 	
 	public void gameStartUp() throws IOException {
+		TyleImageCache.load();
+		CharacterSprites.load();
 		createBoard();
-		setTyleBoard();
+		blackLines = Sprites.load("images/blackLines.png", board.get(0).length() * dimension, board.size() * dimension);
+		gameState = new GameState(board);
 		inPlayScoreBoard = new InPlayScoreBoard(this);
 		setScorePanel();
-		getPowerUpLocations(board.size(), board.get(0).length());
+		scoreBoard = new ScoreBoard(this);
 		lifeFruitManager.setValues();
 	}
 
+	public GameState getGameState() {
+		return gameState;
+	}
+
 	public void startGame() throws IOException {
 		getScores("high_score.txt");
 		if (highscores.size() > 0)
 			topHighScore = highscores.get(highscores.size()-1);
 		
-		pacman = new PacMan(tyle_board);
-		setGhosts(tyle_board);
-		betweenLevelHandler = new BetweenLevelHandler(tyle_board, this);
+		synchronized (frame_lock) {
+			gameState.startLevel();
+			mazeLayer = new MazeLayer(gameState.getTyleBoard(), gameState.getDirtyTyles());
+			betweenLevelHandler = new BetweenLevelHandler(gameState.getTyleBoard(), this, scoreBoard);
+		}
 		setFrame(frame);
-		
-		CharacterEventHandler characterHandler = new CharacterEventHandler(60, pacman, ghosts, tyle_board);
 
-		characterHandler.setCharacters();
-		Audio audio = new Audio();
-		audio.startSound();
-		
-		betweenLevelHandler.flashReady();
-		
-		characterHandler.handleStart();
+		gameLoop = new GameLoop(new GameLoop.Game() {
+			public void tick() throws IOException {
+				synchronized (frame_lock) {
+					long time = TickProfiler.start();
+					gameState.step(direction);
+					TickProfiler.lap(TickProfiler.Phase.TICK, time);
+
+					inPlayScoreBoard.updateTopHighScore(gameState.getScore());
+					if (gameState.getPhase() == GameState.Phase.GAME_OVER && gameState.getPhaseTick() == 0)
+						betweenLevelHandler.startGameOver(inPlayScoreBoard, gameState.getScore());
+					betweenLevelHandler.update(gameState);
+					if (headlessRenderer != null)
+						headlessRenderer.renderFrame();
+				}
+			}
 
-		while (TOTAL_DOTS > 0 && lives >= 0) {
+			public boolean isRunning() {
+				return gameState.getPhase() != GameState.Phase.FINISHED;
+			}
 
-			characterHandler.postKeyPressEventHandler(delta);
-			frame.repaint();
-		}
-		if (lives < 0)
-			betweenLevelHandler.doGameOver(inPlayScoreBoard);
-		else
-			betweenLevelHandler.flashPanelAfterWin();
-	}
-	
-	public void resetGame() throws IOException {
-		TOTAL_DOTS = 0;
-		inPlayScoreBoard = null;
-		
-		inPlayScoreBoard = new InPlayScoreBoard(this);
-		setTyleBoard();
-		setScorePanel();
+			public void render() {
+				if (headlessRenderer == null)
+					repaintBoard();
+			}
+		}, simulationSpeed);
+		gameLoop.run();
+		gameLoop = null;
 	}
-	
-	public static void sleep() {
-		try {
-			Thread.sleep(FPS, 666);
-			// Thread.sleep(100, 666);
-		} catch (InterruptedException e) {
 
+	public void resetGame() throws IOException {
+		InPlayScoreBoard score_panel = new InPlayScoreBoard(this);
+		score_panel.createScorePanel();
+		synchronized (frame_lock) {
+			inPlayScoreBoard = score_panel;
 		}
 	}
 
@@ -292,17 +341,15 @@ public class PacManBoard extends JPanel implements KeyListener {
 	public void keyPressed(KeyEvent event) {
 
 		if (event.getKeyCode() == KeyEvent.VK_UP) {
-			delta[0] = 0;
-			delta[1] = -1;
+			direction = GameState.UP;
 		} else if (event.getKeyCode() == KeyEvent.VK_DOWN) {
-			delta[0] = 0;
-			delta[1] = 1;
+			direction = GameState.DOWN;
 		} else if (event.getKeyCode() == KeyEvent.VK_LEFT) {
-			delta[0] = -1;
-			delta[1] = 0;
+			direction = GameState.LEFT;
 		} else if (event.getKeyCode() == KeyEvent.VK_RIGHT) {
-			delta[0] = 1;
-			delta[1] = 0;
+			direction = GameState.RIGHT;
+		} else if (event.getKeyCode() == KeyEvent.VK_P && TickProfiler.enabled) {
+			TickProfiler.dump(System.out);
 		}
 	}
 
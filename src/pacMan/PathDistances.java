@@ -0,0 +1,243 @@
+package pacMan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * How many moves it takes PacMan to get from any tyle he can stand on to any
+ * other, going the ways MazeIndex lets him and through the teleport. Meant for
+ * bots and agents that need to know how far away something really is; the
+ * ghosts still aim by straight-line distance, as they always have.
+ *
+ * Tyles are numbered row * columns + column, as in MazeIndex. The table has one
+ * char per pair of walkable tyles, so a distance is looked up with one read.
+ * Each row of the table is a breadth first search from one tyle, and the rows
+ * are searched in parallel.
+ *
+ * The table only depends on the layout of the map, so it can be saved to a
+ * file and mapped back into memory on later runs instead of being searched
+ * again. The file starts with a hash of the map's moves, and is rebuilt if the
+ * map no longer matches it. The file is only a cache: if it cannot be read or
+ * written, the table is searched and kept in memory.
+ *
+ * The whole table, and its file, must fit in an array, which limits a map to
+ * MAX_SIZE tyles that PacMan can stand on.
+ */
+public class PathDistances {
+
+	// The file format: MAGIC, VERSION, the hash of the map and the number of
+	// walkable tyles, then the table row by row.
+	private static final int MAGIC = 0x504d5044;
+	private static final int VERSION = 1;
+	private static final int HEADER = 4 + 4 + 8 + 4;
+
+	private static final char UNREACHABLE = Character.MAX_VALUE;
+
+	public static final int MAX_SIZE = 32767;
+
+	private final int columns;
+	// The node of each tyle, or -1 where PacMan cannot stand.
+	private final int[] nodes;
+	// The nodes each node has a move to.
+	private final int[][] neighbours;
+	private final int size;
+	private final long hash;
+	private CharBuffer distances;
+
+	private PathDistances(MazeIndex index) {
+		columns = index.getColumns();
+		nodes = new int[index.getRows() * columns];
+		Arrays.fill(nodes, -1);
+
+		int[] teleport_a = index.getTeleportExit(TyleContainer.Tyle.TELEPORT_SQUARE_B);
+		int[] teleport_b = index.getTeleportExit(TyleContainer.Tyle.TELEPORT_SQUARE_A);
+		int count = 0;
+		for (int tile = 0; tile < nodes.length; tile++) {
+			if (index.isPacManTyle(tile / columns, tile % columns))
+				nodes[tile] = count++;
+		}
+		size = count;
+		if (getFileLength() > Integer.MAX_VALUE)
+			throw new IllegalArgumentException(
+					"A map can have at most " + MAX_SIZE + " tyles to stand on, not " + size);
+
+		long hash = 0xcbf29ce484222325L;
+		hash = mix(hash, index.getRows());
+		hash = mix(hash, columns);
+		neighbours = new int[size][];
+		for (int tile = 0; tile < nodes.length; tile++) {
+			int exits = index.getPacManExits(tile / columns, tile % columns);
+			hash = mix(hash, nodes[tile] < 0 ? -1 : exits);
+			if (nodes[tile] < 0)
+				continue;
+
+			int[] next = new int[5];
+			int moves = 0;
+			for (int direction = 0; direction < 4; direction++) {
+				if ((exits & (1 << direction)) != 0)
+					next[moves++] = nodes[tile + GameState.DY[direction] * columns + GameState.DX[direction]];
+			}
+			// Stepping off one end of the teleport puts PacMan on the other.
+			if (tile == getTile(teleport_a) && teleport_b != null)
+				next[moves++] = nodes[getTile(teleport_b)];
+			else if (tile == getTile(teleport_b) && teleport_a != null)
+				next[moves++] = nodes[getTile(teleport_a)];
+			neighbours[nodes[tile]] = Arrays.copyOf(next, moves);
+		}
+		hash = mix(hash, getTile(teleport_a));
+		hash = mix(hash, getTile(teleport_b));
+		this.hash = hash;
+	}
+
+	private static long mix(long hash, int value) {
+		return (hash ^ value) * 0x100000001b3L;
+	}
+
+	// The length of the file, which is also more than the table takes in memory.
+	private long getFileLength() {
+		return HEADER + 2L * size * size;
+	}
+
+	private int getTile(int[] position) {
+		return position == null ? -1 : getTile(position[0], position[1]);
+	}
+
+	// Searches the whole table in memory.
+	public static PathDistances build(MazeIndex index) {
+		PathDistances paths = new PathDistances(index);
+		paths.search();
+		return paths;
+	}
+
+	/**
+	 * Maps the table in from file if it was saved there for this map, or searches
+	 * it and saves it to file for next time. A file that cannot be read is
+	 * searched again, and one that cannot be written is left alone, so this
+	 * always returns a table.
+	 */
+	public static PathDistances load(MazeIndex index, Path file) {
+		PathDistances paths = new PathDistances(index);
+		try {
+			if (paths.map(file))
+				return paths;
+		} catch (IOException e) {
+			System.err.println("Could not read the path distances from " + file + ": " + e);
+		}
+		paths.search();
+		try {
+			paths.save(file);
+		} catch (IOException e) {
+			System.err.println("Could not save the path distances to " + file + ": " + e);
+		}
+		return paths;
+	}
+
+	private void search() {
+		char[] table = new char[size * size];
+		IntStream.range(0, size).parallel().forEach(source -> search(source, table));
+		distances = CharBuffer.wrap(table);
+	}
+
+	// Fills in the row of the table for source.
+	private void search(int source, char[] table) {
+		int row = source * size;
+		Arrays.fill(table, row, row + size, UNREACHABLE);
+		int[] queue = new int[size];
+		int head = 0, tail = 0;
+		table[row + source] = 0;
+		queue[tail++] = source;
+		while (head < tail) {
+			int node = queue[head++];
+			char distance = (char) (table[row + node] + 1);
+			for (int next : neighbours[node]) {
+				if (table[row + next] == UNREACHABLE) {
+					table[row + next] = distance;
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	// Returns false, leaving the table unset, if file is missing or is not for
+	// this map.
+	private boolean map(Path file) throws IOException {
+		if (!Files.isRegularFile(file))
+			return false;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() != getFileLength())
+				return false;
+			ByteBuffer header = ByteBuffer.allocate(HEADER);
+			while (header.hasRemaining() && channel.read(header) >= 0)
+				;
+			header.flip();
+			if (header.getInt() != MAGIC || header.getInt() != VERSION || header.getLong() != hash
+					|| header.getInt() != size)
+				return false;
+			distances = channel.map(FileChannel.MapMode.READ_ONLY, HEADER, 2L * size * size).asCharBuffer();
+		}
+		return true;
+	}
+
+	// Writes the table next to file and then moves it into place, so that another
+	// run never maps half a table where the file system can move atomically.
+	private void save(Path file) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) getFileLength());
+		buffer.putInt(MAGIC).putInt(VERSION).putLong(hash).putInt(size);
+		buffer.asCharBuffer().put(distances.duplicate());
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				while (buffer.hasRemaining())
+					channel.write(buffer);
+			}
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	public int getTile(int row, int column) {
+		return row * columns + column;
+	}
+
+	// Whether PacMan can stand on tile.
+	public boolean isWalkable(int tile) {
+		return nodes[tile] >= 0;
+	}
+
+	/**
+	 * @return the fewest moves from tile_a to tile_b, or -1 if either cannot be
+	 *         stood on or there is no way between them.
+	 */
+	public int pathDistance(int tile_a, int tile_b) {
+		int a = nodes[tile_a], b = nodes[tile_b];
+		if (a < 0 || b < 0)
+			return -1;
+		char distance = distances.get(a * size + b);
+		return distance == UNREACHABLE ? -1 : distance;
+	}
+
+	public int pathDistance(int row_a, int column_a, int row_b, int column_b) {
+		return pathDistance(getTile(row_a, column_a), getTile(row_b, column_b));
+	}
+
+	// The number of tyles PacMan can stand on.
+	public int size() {
+		return size;
+	}
+
+}
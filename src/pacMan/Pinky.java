@@ -1,51 +1,41 @@
 package pacMan;
 
 import pacMan.Ghost.HomeState;
-import pacMan.TyleContainer.Tyle;
 
 public class Pinky extends Ghost {
 
-	public Pinky(Tyle[][] tyle_board) {
+	public Pinky(TyleBoard tyle_board) {
 		super(GhostName.PINKY, State.DEFAULT, tyle_board, TargetingState.SCATTER, HomeState.IS_HOME, 0);
 	}
 	
 	public void setSpawnLocation() {
-		Tyle[][] tyleBoard = getTyleBoard();
-		int rows = tyleBoard.length;
-		int columns = tyleBoard[0].length;
-		for (int i = 0; i < rows; i++) {
-			for (int j = 0; j < columns; j++) {
-				if (tyleBoard[i][j] == Tyle.GHOST_WALL_TOP_LEFT) {
-					spawnX = j * PacManBoard.dimension + 3 * PacManBoard.dimension + PacManBoard.dimension / 2;
-					spawnY = i * PacManBoard.dimension + 2 * PacManBoard.dimension;
-					
-					int exitX = j * PacManBoard.dimension + 3 * PacManBoard.dimension + PacManBoard.dimension / 2;
-					int exitY = i * PacManBoard.dimension - PacManBoard.dimension;
-					setExitX(exitX);
-					setExitY(exitY);
-					
-					int[] target = new int[2];
-					target[0] = spawnX - PacManBoard.dimension / 2;
-					target[1] = spawnY;
-					setHomeTarget(target);
-				}
-			}
-		}
+		MazeIndex index = getTyleBoard().getIndex();
+		int house_x = index.getGhostHouseX();
+		int house_y = index.getGhostHouseY();
+		spawnX = house_x + 3 * GameState.dimension + GameState.dimension / 2;
+		spawnY = house_y + 2 * GameState.dimension;
+		
+		int exitX = house_x + 3 * GameState.dimension + GameState.dimension / 2;
+		int exitY = house_y - GameState.dimension;
+		setExitX(exitX);
+		setExitY(exitY);
+		
+		setHomeTarget(index.getGhostHomeX(), index.getGhostHomeY());
 	}
 	
 	public void updateAttackTarget(PacMan pacman) {
-		int addX = (pacman.getDeltaX() * 4) * PacManBoard.dimension;
-		int addY = (pacman.getDeltaY() * 4) * PacManBoard.dimension; 
+		int addX = (pacman.getDeltaX() * 4) * GameState.dimension;
+		int addY = (pacman.getDeltaY() * 4) * GameState.dimension; 
 		
 		if (pacman.getDeltaY() == -1) {
-			addX = -4 * PacManBoard.dimension;
+			addX = -4 * GameState.dimension;
 		}
 		
-		setAttackTarget(new int[] {pacman.getX() + addX, pacman.getY() + addY});
+		setAttackTarget(pacman.getX() + addX, pacman.getY() + addY);
 	}
 	
 	public void updateScatterTarget() {
-		setScatterTarget(new int[] {64, 0});
+		setScatterTarget(64, 0);
 	}
 
 	public void resetGhost() {
@@ -1,9 +1,6 @@
 package pacMan;
 
-import java.awt.Image;
-import java.awt.Toolkit;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 import pacMan.Ghost.GhostName;
@@ -20,11 +17,10 @@ public class PowerUp {
 
 		int score;
 		String filename;
-		Image image;
 
 		State(int score, String filename) {
 			this.score = score;
-			this.image = Toolkit.getDefaultToolkit().getImage(filename);
+			this.filename = filename;
 		}
 	}
 
@@ -32,55 +28,84 @@ public class PowerUp {
 	private Ghost[] ghosts;
 	private PacMan pacman;
 	private int ghosts_remaining = 4;
-	public int blueTimer = 0;
 	public boolean blinking;
-	private List<int[]> powerup_pos = new ArrayList<int[]>();
 
-	private Tyle[][] tyle_board;
+	// Ghosts turn blue on the tick after a power-up is eaten, start blinking 5
+	// seconds after that and go back to normal 3 seconds later.
+	private static final int BLINK_TICKS = 300;
+	private static final int END_TICKS = 480;
+	private final TickScheduler scheduler;
+	private final TurnBlue turn_blue = new TurnBlue();
+	private final StartBlinking start_blinking = new StartBlinking();
+	private final EndPowerUp end_power_up = new EndPowerUp();
 
-	public PowerUp(PacMan pacman, Ghost[] ghosts, State state, Tyle[][] tyle_board) {
+	// Each ghost that is eaten shows its score for a second while the rest of the
+	// game stands still. Ghosts eaten on the same tick take turns, in order.
+	private static final int SCORE_TICKS = 60;
+	private final Ghost[] eaten_ghosts = new Ghost[4];
+	private final State[] eaten_scores = new State[4];
+	private int eaten_count = 0;
+	private int score_ticks = 0;
+	private List<int[]> powerup_pos;
+
+	private TyleBoard tyle_board;
+	private DirtyTyles dirty_tyles;
+	private GameState game_state;
+
+	public PowerUp(PacMan pacman, Ghost[] ghosts, State state, TyleBoard tyle_board, DirtyTyles dirty_tyles,
+			TickScheduler scheduler, GameState game_state) {
 		this.state = state;
+		this.game_state = game_state;
+		this.scheduler = scheduler;
 		this.tyle_board = tyle_board;
+		this.dirty_tyles = dirty_tyles;
 		this.pacman = pacman;
 		this.ghosts = ghosts;
 		getPowerUpLocations();
+		scheduler.add(turn_blue);
+		scheduler.add(start_blinking);
+		scheduler.add(end_power_up);
 	}
 
 	public void powerupHandler(PacMan pacman) throws IOException {
-		updateState();
 		incrementState();
 		getPowerupCollision();
 		getPacManCollision();
 	}
 
-	public void updateState() {
-		if (state != State.OFF) {
-			if (blueTimer == 0) {
-				setGhostStates(Ghost.State.BLUE);
-				setGhostTargetingStates(TargetingState.FRIGHTENED);
-			}
-			blueTimer++;
+	class TurnBlue extends TickScheduler.Task {
+		public void run() {
+			setGhostStates(Ghost.State.BLUE);
+			setGhostTargetingStates(TargetingState.FRIGHTENED);
 		}
-		if (blueTimer == 300) {
+	}
+
+	class StartBlinking extends TickScheduler.Task {
+		public void run() {
 			setGhostStates(Ghost.State.BLINKING);
 			setGhostTargetingStates(TargetingState.FRIGHTENED);
 			blinking = true;
 		}
-		if (blueTimer == 480) {
+	}
+
+	class EndPowerUp extends TickScheduler.Task {
+		public void run() {
 			setGhostStates(Ghost.State.DEFAULT);
 			setGhostTargetingStates(TargetingState.ATTACK);
 			state = State.OFF;
-			pacman.state = pacman.state.DEFAULT;
+			pacman.state = PacMan.State.DEFAULT;
 			resetGhostCount();
-			blueTimer = 0;
 			blinking = false;
 		}
 	}
 
+	// Eating a power-up while one is running starts the timings over.
 	public void setStateToBlue() {
 		state = State.BLUE_200;
-		blueTimer = 0;
 		blinking = false;
+		scheduler.schedule(turn_blue, 1);
+		scheduler.schedule(start_blinking, BLINK_TICKS);
+		scheduler.schedule(end_power_up, END_TICKS);
 	}
 
 	public void incrementState() {
@@ -91,8 +116,14 @@ public class PowerUp {
 		if (ghosts_remaining == 1)
 			state = State.BLUE_1600;
 		if (ghosts_remaining == 0) {
+			// Eating the last ghost ends the power-up there and then, and the timings
+			// stop with it: PacMan stays POWERED, and nothing is done to the ghosts,
+			// until the next power-up is eaten.
 			ghosts_remaining = 4;
 			state = State.OFF;
+			scheduler.cancel(turn_blue);
+			scheduler.cancel(start_blinking);
+			scheduler.cancel(end_power_up);
 		}
 	}
 
@@ -101,54 +132,78 @@ public class PowerUp {
 	}
 
 	public void getPowerupCollision() {
-		int row = pacman.getY() / PacManBoard.dimension;
-		int column = pacman.getX() / PacManBoard.dimension;
+		int row = pacman.getY() / GameState.dimension;
+		int column = pacman.getX() / GameState.dimension;
 
-		if (tyle_board[row][column].type == TyleType.POWERUP) {
+		if (tyle_board.get(row, column).type == TyleType.POWERUP) {
 			setStateToBlue();
-			PacManBoard.TOTAL_DOTS--;
-			PacManBoard.totalScore += 50;
+			game_state.addScore(50);
 			for (int i = 0; i < 4; i++) {
 				ghosts[i].setBackTracking(true);
 			}
 			pacman.state = PacMan.State.POWERED;
-			tyle_board[row][column] = Tyle.POWERUP_USED;
+			tyle_board.eat(row, column);
+			dirty_tyles.mark(row, column);
 		}
 	}
 
 	public void getPacManCollision() throws IOException {
 		for (int i = 0; i < 4; i++) {
 			Ghost ghost = ghosts[i];
-			int gRow = ghost.getY() / PacManBoard.dimension;
-			int gCol = ghost.getX() / PacManBoard.dimension;
-			int pRow = pacman.getY() / PacManBoard.dimension;
-			int pCol = pacman.getX() / PacManBoard.dimension;
+			int gRow = ghost.getY() / GameState.dimension;
+			int gCol = ghost.getX() / GameState.dimension;
+			int pRow = pacman.getY() / GameState.dimension;
+			int pCol = pacman.getX() / GameState.dimension;
 			if (gRow == pRow && gCol == pCol && ghost.getState() != Ghost.State.DEFAULT
 					&& ghost.getState() != Ghost.State.HEAD_HOME) {
 
-				PacManBoard.totalScore += state.score;
-				Audio audio = new Audio();
-				audio.munchSound();
+				game_state.addScore(state.score);
+				if (game_state.isSoundOn())
+					Audio.playMunch();
 				decrementGhosts();
 				ghost.setTargetingState(TargetingState.GO_HOME);
 				ghost.updateState(Ghost.State.HEAD_HOME);
 				ghost.updateDensity(0);
 
-				setBlackTemporarily(ghost, 1);
+				eaten_ghosts[eaten_count] = ghost;
+				eaten_scores[eaten_count] = state;
+				eaten_count++;
 			}
 		}
 	}
 
-	private void setBlackTemporarily(Ghost ghost, int seconds) {
-		pacman.changeVisibility(PacMan.Visibility.NOT_VISIBLE);
-		Image gImage = ghost.getImage();
-		ghost.changeImage(null, state.image);
-		PacManBoard.frame.repaint();
-		for (int j = 0; j < seconds * 60; j++) {
-			PacManBoard.sleep();
+	/**
+	 * Called at the start of every tick. Shows the score of each eaten ghost in
+	 * turn, with PacMan hidden, for SCORE_TICKS ticks.
+	 * @return true while a score is showing and the rest of the tick should be skipped
+	 */
+	public boolean updateEatenGhosts() {
+		if (score_ticks > 0) {
+			score_ticks--;
+			if (score_ticks > 0)
+				return true;
+
+			eaten_ghosts[0].showScore(null);
+			pacman.changeVisibility(PacMan.Visibility.VISIBLE);
+			eaten_count--;
+			for (int i = 0; i < eaten_count; i++) {
+				eaten_ghosts[i] = eaten_ghosts[i + 1];
+				eaten_scores[i] = eaten_scores[i + 1];
+			}
+			eaten_ghosts[eaten_count] = null;
 		}
-		ghost.changeImage(null, gImage);
-		pacman.changeVisibility(PacMan.Visibility.VISIBLE);
+		if (eaten_count == 0)
+			return false;
+
+		Ghost ghost = eaten_ghosts[0];
+		pacman.changeVisibility(PacMan.Visibility.NOT_VISIBLE);
+		ghost.showScore(eaten_scores[0]);
+		score_ticks = SCORE_TICKS;
+		return true;
+	}
+
+	public boolean isShowingScore() {
+		return score_ticks > 0 || eaten_count > 0;
 	}
 
 	private void setGhostTargetingStates(TargetingState targeting_state) {
@@ -173,28 +228,17 @@ public class PowerUp {
 	}
 
 	public void getPowerUpLocations() {
-		int boardRows = tyle_board.length;
-		int boardColumns = tyle_board[0].length;
-		for (int i = 0; i < boardRows; i++) {
-			for (int j = 0; j < boardColumns; j++) {
-				if (tyle_board[i][j] == Tyle.POWERUP) {
-					int[] position = new int[2];
-					position[0] = i;
-					position[1] = j;
-					powerup_pos.add(position);
-				}
-			}
-		}
+		powerup_pos = tyle_board.getIndex().getPowerUpPositions();
 	}
 
 	public void blinkPowerUps(int frame, int rate) {
 		if (frame % rate == 0) {
+			tyle_board.blinkPowerUps();
 			for (int i = 0; i < powerup_pos.size(); i++) {
-				if (tyle_board[powerup_pos.get(i)[0]][powerup_pos.get(i)[1]] == Tyle.POWERUP) {
-					tyle_board[powerup_pos.get(i)[0]][powerup_pos.get(i)[1]] = Tyle.POWERUP_BLINKED;
-				} else if (tyle_board[powerup_pos.get(i)[0]][powerup_pos.get(i)[1]] == Tyle.POWERUP_BLINKED) {
-					tyle_board[powerup_pos.get(i)[0]][powerup_pos.get(i)[1]] = Tyle.POWERUP;
-				}
+				int row = powerup_pos.get(i)[0];
+				int column = powerup_pos.get(i)[1];
+				if (tyle_board.get(row, column) != Tyle.POWERUP_USED)
+					dirty_tyles.mark(row, column);
 			}
 		}
 	}
@@ -207,4 +251,22 @@ public class PowerUp {
 		ghosts_remaining = 4;
 	}
 
+	// Copies everything but the timers, which are copied with the scheduler.
+	// other must belong to a game of the same map.
+	public void copyFrom(PowerUp other) {
+		state = other.state;
+		ghosts_remaining = other.ghosts_remaining;
+		blinking = other.blinking;
+		eaten_count = other.eaten_count;
+		score_ticks = other.score_ticks;
+		for (int i = 0; i < eaten_ghosts.length; i++) {
+			eaten_ghosts[i] = null;
+			for (int j = 0; j < ghosts.length; j++) {
+				if (other.eaten_ghosts[i] == other.ghosts[j])
+					eaten_ghosts[i] = ghosts[j];
+			}
+			eaten_scores[i] = other.eaten_scores[i];
+		}
+	}
+
 }
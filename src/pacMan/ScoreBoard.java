@@ -2,7 +2,6 @@ package pacMan;
 
 import java.awt.Graphics;
 import java.awt.Image;
-import java.awt.Toolkit;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -12,8 +11,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 
-import javax.imageio.ImageIO;
+import pacMan.TyleContainer.Tyle;
 
+/*
+ * The high-score screen shown after a game over. The whole screen is drawn
+ * once into score_board_image, and drawScoreBoard only copies that image.
+ */
 public class ScoreBoard {
 	
 	private final ArrayList<String> char_panel = new ArrayList<>();
@@ -23,10 +26,22 @@ public class ScoreBoard {
 	
 	private int[] scoreRows = new int[10];
 	
+	private BufferedImage score_board_image;
+	
 	public ScoreBoard(PacManBoard pacman_board) throws IOException {
-		alphaNumChars = new AlphaNumericChars(pacman_board);
+		this.pacman_board = pacman_board;
+		alphaNumChars = AlphaNumericChars.getAtlas();
 		getBoard();
 		getScores("high_score.txt");
+		renderScoreBoard();
+	}
+	
+	// Re-read the high scores and draw the screen again. Call this whenever
+	// high_score.txt has changed.
+	public void refresh() throws FileNotFoundException {
+		highscores.clear();
+		getScores("high_score.txt");
+		renderScoreBoard();
 	}
 
 	private void getBoard() throws FileNotFoundException {
@@ -40,10 +55,19 @@ public class ScoreBoard {
 		in.close();
 	}
 	
-	public void drawScoreBoard(Graphics g) throws IOException {
+	public void drawScoreBoard(Graphics g) {
+		g.drawImage(score_board_image, 0, 0, pacman_board);
+	}
+	
+	private void renderScoreBoard() {
 		int rows = char_panel.size();
 		int columns = char_panel.get(0).length();
 		int[] colorIndex = new int[38];
+		Image black_square = TyleImageCache.get(Tyle.BLACK_SQUARE);
+		
+		int dim = PacManBoard.screenDimension;
+		score_board_image = Sprites.createImage(dim * (columns - 1), dim * rows);
+		Graphics g = score_board_image.createGraphics();
 		
 		for (int i = 0; i < rows; i++) {
 			for (int j = 0; j < columns; j++) {
@@ -53,27 +77,26 @@ public class ScoreBoard {
 					}
 					continue;
 				}
-				File imgFile = new File("images/black_square.png");
-				BufferedImage piece;
-				int posX = PacManBoard.dimension * (j-1);
-				int posY = PacManBoard.dimension * i;
+				Image piece;
+				int posX = dim * (j-1);
+				int posY = dim * i;
 				int index = charIndexHelper(char_panel.get(i).charAt(j));
 				if (index < 0)
-					piece = ImageIO.read(imgFile);
+					piece = black_square;
 				else if (index > 41) {
 					colorIndex[i] = index - 42;
-					piece = ImageIO.read(imgFile);
+					piece = black_square;
 				} else
 					piece = alphaNumChars.alphaNumImages[colorIndex[i]][index];
 				
 				if (i == 1)
-					posY -= PacManBoard.dimension / 4;
-				g.drawImage(piece, posX, posY, PacManBoard.dimension,
-						PacManBoard.dimension, pacman_board);
+					posY -= dim / 4;
+				g.drawImage(piece, posX, posY, null);
 			}
 		}
 		
 		drawScore(g, highscores, scoreRows, colorIndex);
+		g.dispose();
 	}
 	
 	private int charIndexHelper(char character) {
@@ -88,15 +111,14 @@ public class ScoreBoard {
 		return index;
 	}
 	
-	public void drawScore(Graphics g, List<Integer> highscores, int[] scoreRows, int[] colorIndex) {
+	private void drawScore(Graphics g, List<Integer> highscores, int[] scoreRows, int[] colorIndex) {
+		int dim = PacManBoard.screenDimension;
 		for (int n = 0; n < scoreRows.length; n++) {
 			
 			if (n >= highscores.size()) {
 				Image zero = alphaNumChars.alphaNumImages[0][0];
-				g.drawImage(zero, PacManBoard.dimension * 19, PacManBoard.dimension*scoreRows[n], PacManBoard.dimension,
-						PacManBoard.dimension, pacman_board);
-				g.drawImage(zero, PacManBoard.dimension * 19 - PacManBoard.dimension, PacManBoard.dimension*scoreRows[n], PacManBoard.dimension,
-						PacManBoard.dimension, pacman_board);
+				g.drawImage(zero, dim * 19, dim * scoreRows[n], null);
+				g.drawImage(zero, dim * 19 - dim, dim * scoreRows[n], null);
 				return;
 			}
 			
@@ -106,8 +128,7 @@ public class ScoreBoard {
 			for (int i = 0; i < length; i++) {
 				int index = score.charAt((length-1) - i) - '0';
 				Image piece = alphaNumChars.alphaNumImages[colorIndex[scoreRows[n]]][index];
-				g.drawImage(piece, PacManBoard.dimension * 19 - PacManBoard.dimension * i, PacManBoard.dimension*scoreRows[n], PacManBoard.dimension,
-						PacManBoard.dimension, pacman_board);
+				g.drawImage(piece, dim * 19 - dim * i, dim * scoreRows[n], null);
 			}
 		}
 	}
@@ -0,0 +1,56 @@
+package pacMan;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.awt.image.ImageObserver;
+
+/**
+ * A right-aligned number drawn with glyphs from the atlas. The digits are drawn
+ * into a strip image, which is only redrawn when the number changes, so each
+ * frame costs a single image copy.
+ */
+public class ScoreStrip {
+
+	private static final int MAX_DIGITS = 10;
+
+	private final Image[] digits;
+	private final int min_digits;
+	private final BufferedImage strip;
+	private final Graphics2D strip_graphics;
+	private int number = -1;
+
+	// min_digits pads small numbers with leading zeros, so 0 can show as "00".
+	public ScoreStrip(AlphaNumericChars atlas, int color, int min_digits) {
+		this.digits = atlas.alphaNumImages[color];
+		this.min_digits = min_digits;
+		this.strip = Sprites.createImage(MAX_DIGITS * PacManBoard.screenDimension, PacManBoard.screenDimension);
+		this.strip_graphics = strip.createGraphics();
+	}
+
+	// Draws the number with its last digit in right_column.
+	public void draw(Graphics g, int number, int right_column, int row, ImageObserver observer) {
+		if (number != this.number)
+			render(number);
+
+		int dim = PacManBoard.screenDimension;
+		g.drawImage(strip, (right_column - MAX_DIGITS + 1) * dim, row * dim, observer);
+	}
+
+	private void render(int number) {
+		int dim = PacManBoard.screenDimension;
+
+		strip_graphics.setComposite(AlphaComposite.Clear);
+		strip_graphics.fillRect(0, 0, strip.getWidth(), strip.getHeight());
+		strip_graphics.setComposite(AlphaComposite.SrcOver);
+
+		int value = number;
+		for (int i = 0; i < MAX_DIGITS && (value > 0 || i < min_digits); i++, value /= 10) {
+			strip_graphics.drawImage(digits[value % 10], (MAX_DIGITS - 1 - i) * dim, 0, null);
+		}
+		this.number = number;
+	}
+
+}
@@ -0,0 +1,46 @@
+package pacMan;
+
+/**
+ * Which frames a character stands still on at each speed percent. A character
+ * at speed_percent moves on speed_percent of every FRAMES frames, and stands
+ * still on the rest, spread out as evenly as they go: it stands still on a
+ * frame whenever it has so far stood still on fewer than (100 - speed_percent)
+ * in every 100 frames.
+ *
+ * That is a Bresenham line, so the frames repeat every FRAMES frames and are
+ * worked out once, as a FRAMES bit pattern per speed percent.
+ */
+public class SpeedPattern {
+
+	public static final int FRAMES = 100;
+
+	// One bit per frame, set on the frames to stand still on, for each speed
+	// percent from 0 to 100.
+	private static final long[][] PATTERNS = new long[101][(FRAMES + 63) / 64];
+
+	static {
+		for (int speed_percent = 0; speed_percent <= 100; speed_percent++) {
+			int error = 0;
+			for (int frame = 0; frame < FRAMES; frame++) {
+				error += 100 - speed_percent;
+				if (error > 0) {
+					PATTERNS[speed_percent][frame >>> 6] |= 1L << frame;
+					error -= 100;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param frames_passed frames since the speed percent last changed, counting
+	 *                      this one. A character never stands still on the frame
+	 *                      its speed changes, when this is 0.
+	 */
+	public static boolean isStalled(int speed_percent, int frames_passed) {
+		if (frames_passed <= 0)
+			return false;
+		int frame = (frames_passed - 1) % FRAMES;
+		return (PATTERNS[speed_percent][frame >>> 6] & (1L << frame)) != 0;
+	}
+
+}
@@ -0,0 +1,86 @@
+package pacMan;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Process-wide cache of sprite images, keyed by filename. Unlike
+ * Toolkit.getImage, which loads images in the background, a sprite is fully
+ * decoded the first time it is asked for. This keeps every frame complete when
+ * frames are drawn off-screen, including with java.awt.headless=true.
+ *
+ * Every image file is drawn at twice the size it appears on the board, so a
+ * 32px tyle image fills one 16px tyle. Sprites are scaled once, with
+ * nearest-neighbour sampling, to half their file size times
+ * PacManBoard.scale. Drawing a sprite is then an unscaled copy.
+ */
+public class Sprites {
+
+	private static final Map<String, BufferedImage> sprites = new HashMap<>();
+
+	public static synchronized BufferedImage get(String filename) {
+		if (filename == null)
+			return null;
+
+		BufferedImage sprite = sprites.get(filename);
+		if (sprite == null) {
+			sprite = scale(read(filename));
+			sprites.put(filename, sprite);
+		}
+		return sprite;
+	}
+
+	// Loads an image that covers width x height board pixels, whatever the size
+	// of its file. The result is not cached.
+	public static BufferedImage load(String filename, int width, int height) {
+		return scale(read(filename), width * PacManBoard.scale, height * PacManBoard.scale);
+	}
+
+	// Scales an image from its file size to its size on screen.
+	public static BufferedImage scale(BufferedImage source) {
+		return scale(source, source.getWidth() / 2 * PacManBoard.scale, source.getHeight() / 2 * PacManBoard.scale);
+	}
+
+	private static BufferedImage scale(BufferedImage source, int width, int height) {
+		BufferedImage sprite = createImage(width, height);
+
+		Graphics2D g = sprite.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+		g.drawImage(source, 0, 0, width, height, null);
+		g.dispose();
+
+		return sprite;
+	}
+
+	private static BufferedImage read(String filename) {
+		try {
+			return ImageIO.read(new File(filename));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not load sprite " + filename, e);
+		}
+	}
+
+	// Creates an image with the same pixel layout as the screen, so copying it
+	// to the screen needs no conversion. Falls back to a plain ARGB image when
+	// there is no screen to be compatible with.
+	public static BufferedImage createImage(int width, int height) {
+		if (GraphicsEnvironment.isHeadless())
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+
+		GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+				.getDefaultConfiguration();
+		return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+	}
+
+}
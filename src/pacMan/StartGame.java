@@ -4,14 +4,15 @@ import java.io.IOException;
 
 public class StartGame {
 
+	// Run with -Dpacman.games=N to quit after N games instead of playing forever.
 	public static void main(String[] args) throws IOException {
+		int games = Integer.getInteger("pacman.games", 0);
 		PacManBoard pacman_board = new PacManBoard();
 		pacman_board.gameStartUp();
-		while (true) {
+		for (int game = 0; games <= 0 || game < games; game++) {
 			pacman_board.startGame();
 			pacman_board.resetGame();
-			for (int i = 0; i < 60; i++)
-				PacManBoard.sleep();
 		}
+		System.exit(0);
 	}
 }
@@ -0,0 +1,80 @@
+package pacMan;
+
+import java.io.PrintStream;
+
+/**
+ * Times each phase of a game tick, and the drawing of each frame, into one
+ * Histogram per phase. Run with -Dpacman.profile=true to turn it on. The
+ * figures are printed when P is pressed and when the game exits.
+ *
+ * Timing a phase is one System.nanoTime call:
+ *
+ * long time = TickProfiler.start();
+ * pacmanHandler();
+ * time = TickProfiler.lap(TickProfiler.Phase.PACMAN_HANDLER, time);
+ *
+ * When profiling is off, start and lap do nothing and return 0.
+ *
+ * The figures are kept once for the whole program and are not synchronised,
+ * so only one game may be profiled at a time. A game is profiled when
+ * GameState.isProfiled() is true; BatchEnvironment turns it off for its games.
+ */
+public class TickProfiler {
+
+	public enum Phase {
+		PACMAN_HANDLER, BLINK_POWER_UPS, POWER_UP_HANDLER, PACMAN_UPDATE, DOTS, BLINKY, PINKY, INKY, CLYDE,
+		GHOST_STATE, TICK, RENDER;
+
+		final Histogram histogram = new Histogram();
+	}
+
+	// The ghostHandler phase of each ghost, by index in the ghosts array.
+	public static final Phase[] GHOSTS = { Phase.BLINKY, Phase.PINKY, Phase.INKY, Phase.CLYDE };
+
+	public static boolean enabled = Boolean.getBoolean("pacman.profile");
+
+	static {
+		if (enabled) {
+			Runtime.getRuntime().addShutdownHook(new Thread("PacMan profile dump") {
+				public void run() {
+					dump(System.out);
+				}
+			});
+		}
+	}
+
+	public static long start() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	// Records the time since start against phase and returns the time now, to
+	// start the next phase from.
+	public static long lap(Phase phase, long start) {
+		if (!enabled)
+			return 0;
+		long now = System.nanoTime();
+		phase.histogram.record(now - start);
+		return now;
+	}
+
+	public static Histogram getHistogram(Phase phase) {
+		return phase.histogram;
+	}
+
+	public static void dump(PrintStream out) {
+		out.println(String.format("%-16s %10s %10s %10s %10s", "phase (us)", "count", "p50", "p99", "max"));
+		for (Phase phase : Phase.values()) {
+			Histogram histogram = phase.histogram;
+			out.println(String.format("%-16s %10d %10.1f %10.1f %10.1f", phase, histogram.getCount(),
+					histogram.getPercentile(50) / 1000.0, histogram.getPercentile(99) / 1000.0,
+					histogram.getMax() / 1000.0));
+		}
+	}
+
+	public static void reset() {
+		for (Phase phase : Phase.values()) {
+			phase.histogram.reset();
+		}
+	}
+
+}
@@ -0,0 +1,84 @@
+package pacMan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs tasks after a number of game ticks. Takes the place of java.util.Timer
+ * for game events: everything runs on the game loop's thread, in the tick it
+ * is due, so timing follows the simulation instead of the wall clock and no
+ * threads are started.
+ *
+ * A Task is a long-lived object that is armed with schedule(), disarmed with
+ * cancel() and can be armed again as often as needed. Scheduling an armed task
+ * moves its deadline. Nothing is allocated once every task has been scheduled
+ * for the first time.
+ */
+public class TickScheduler {
+
+	public static abstract class Task {
+		private TickScheduler scheduler;
+		private long due_tick = -1;
+
+		public abstract void run();
+
+		public boolean isScheduled() {
+			return due_tick >= 0;
+		}
+	}
+
+	private final List<Task> tasks = new ArrayList<>();
+	private long tick = 0;
+
+	// Adds task without scheduling it. Tasks due on the same tick run in the
+	// order they were added, which is otherwise the order of their first
+	// schedule().
+	public void add(Task task) {
+		if (task.scheduler != this) {
+			task.scheduler = this;
+			tasks.add(task);
+		}
+	}
+
+	// Run task once, delay ticks from now. A delay of 1 runs it on the next tick.
+	public void schedule(Task task, long delay) {
+		add(task);
+		task.due_tick = tick + Math.max(1, delay);
+	}
+
+	public void cancel(Task task) {
+		task.due_tick = -1;
+	}
+
+	// Ticks left before task runs, or -1 if it is not scheduled.
+	public long ticksRemaining(Task task) {
+		return task.isScheduled() ? task.due_tick - tick : -1;
+	}
+
+	// Advance one tick and run every task that is due. A task may schedule or
+	// cancel tasks, including itself, while it runs.
+	public void tick() {
+		tick++;
+		for (int i = 0; i < tasks.size(); i++) {
+			Task task = tasks.get(i);
+			if (task.due_tick >= 0 && task.due_tick <= tick) {
+				task.due_tick = -1;
+				task.run();
+			}
+		}
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	// Sets the tick and every task's deadline to other's. other must have had the
+	// same kinds of task added in the same order.
+	public void copyFrom(TickScheduler other) {
+		tick = other.tick;
+		for (int i = 0; i < tasks.size(); i++) {
+			tasks.get(i).due_tick = other.tasks.get(i).due_tick;
+		}
+	}
+
+}
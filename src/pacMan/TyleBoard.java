@@ -0,0 +1,168 @@
+package pacMan;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import pacMan.TyleContainer.Tyle;
+
+/**
+ * The tyles of one game's maze, packed small enough to copy cheaply.
+ *
+ * The layout of the maze never changes, so it is kept once per map as one byte
+ * per cell, holding the Tyle's ordinal, and shared by every TyleBoard made from
+ * it. The layout is stored row by row with a border of OUT_OF_BOUNDS cells all
+ * the way round, so looking one cell past any edge needs no bounds check.
+ *
+ * What does change, the dots and power-ups that are left, is one bit per cell
+ * in a long[] that belongs to each board. Counting what is left is a popcount
+ * per word, and copying or resetting a board copies just those words.
+ *
+ * The MazeIndex of the map is built along with the layout and shared with it.
+ */
+public class TyleBoard {
+
+	private static final Tyle[] TYLES = Tyle.values();
+	public static final String PATHS_EXTENSION = ".paths";
+
+	private final int rows;
+	private final int columns;
+	private final int stride;
+	// Shared with every copy of this board, and never written after parse().
+	private final byte[] layout;
+	private final long[] full_dots;
+	private MazeIndex index;
+
+	private final long[] dots;
+	private boolean blinked = false;
+
+	private TyleBoard(int rows, int columns, byte[] layout, long[] full_dots) {
+		this.rows = rows;
+		this.columns = columns;
+		this.stride = columns + 2;
+		this.layout = layout;
+		this.full_dots = full_dots;
+		this.dots = full_dots.clone();
+	}
+
+	// Builds a board from the text of a map, one line per row, with every dot
+	// and power-up still there.
+	public static TyleBoard parse(List<String> board) {
+		int rows = board.size();
+		int columns = board.get(0).length();
+		int stride = columns + 2;
+		byte[] layout = new byte[(rows + 2) * stride];
+		long[] full_dots = new long[(layout.length + 63) / 64];
+
+		for (int cell = 0; cell < layout.length; cell++) {
+			layout[cell] = (byte) Tyle.OUT_OF_BOUNDS.ordinal();
+		}
+		for (int i = 0; i < rows; i++) {
+			for (int j = 0; j < columns; j++) {
+				for (Tyle tyle : TYLES) {
+					if (tyle.c == board.get(i).charAt(j)) {
+						int cell = (i + 1) * stride + j + 1;
+						layout[cell] = (byte) tyle.ordinal();
+						if (tyle == Tyle.DOT_SQUARE || tyle == Tyle.POWERUP)
+							full_dots[cell >>> 6] |= 1L << cell;
+					}
+				}
+			}
+		}
+		TyleBoard tyle_board = new TyleBoard(rows, columns, layout, full_dots);
+		tyle_board.index = new MazeIndex(tyle_board);
+		return tyle_board;
+	}
+
+	// Reads and parses the map in file_name, with its path distances cached in
+	// file_name + PATHS_EXTENSION.
+	public static TyleBoard load(String file_name) throws IOException {
+		TyleBoard tyle_board = parse(GameState.readBoard(file_name));
+		tyle_board.index.loadPathDistances(Paths.get(file_name + PATHS_EXTENSION));
+		return tyle_board;
+	}
+
+	// A board for another game on the same map, with the same dots left.
+	public TyleBoard copy() {
+		TyleBoard copy = new TyleBoard(rows, columns, layout, full_dots);
+		copy.index = index;
+		copy.copyFrom(this);
+		return copy;
+	}
+
+	public MazeIndex getIndex() {
+		return index;
+	}
+
+	// Makes this board the same as other, which must be of the same map.
+	public void copyFrom(TyleBoard other) {
+		System.arraycopy(other.dots, 0, dots, 0, dots.length);
+		blinked = other.blinked;
+	}
+
+	// Puts back every dot and power-up.
+	public void reset() {
+		System.arraycopy(full_dots, 0, dots, 0, dots.length);
+		blinked = false;
+	}
+
+	private int cell(int row, int column) {
+		return (row + 1) * stride + column + 1;
+	}
+
+	private boolean hasDot(int cell) {
+		return (dots[cell >>> 6] & (1L << cell)) != 0;
+	}
+
+	/**
+	 * @return the tyle at row and column as it is now: an eaten dot is a
+	 *         BLACK_SQUARE, an eaten power-up POWERUP_USED, and a power-up is
+	 *         POWERUP_BLINKED while the power-ups are blinked. Any cell up to one
+	 *         past the edge of the board may be asked for, and is OUT_OF_BOUNDS.
+	 */
+	public Tyle get(int row, int column) {
+		int cell = cell(row, column);
+		Tyle tyle = TYLES[layout[cell]];
+		if (tyle == Tyle.DOT_SQUARE)
+			return hasDot(cell) ? tyle : Tyle.BLACK_SQUARE;
+		if (tyle == Tyle.POWERUP) {
+			if (!hasDot(cell))
+				return Tyle.POWERUP_USED;
+			return blinked ? Tyle.POWERUP_BLINKED : tyle;
+		}
+		return tyle;
+	}
+
+	// Eats the dot or power-up at row and column, returning false if there was
+	// none left there.
+	public boolean eat(int row, int column) {
+		int cell = cell(row, column);
+		if (!hasDot(cell))
+			return false;
+		dots[cell >>> 6] &= ~(1L << cell);
+		return true;
+	}
+
+	// Switches the power-ups that are left between shown and blinked.
+	public void blinkPowerUps() {
+		blinked = !blinked;
+	}
+
+	// Dots and power-ups left to eat.
+	public int getDotsRemaining() {
+		int count = 0;
+		for (int i = 0; i < dots.length; i++) {
+			count += Long.bitCount(dots[i]);
+		}
+		return count;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public int getColumns() {
+		return columns;
+	}
+
+}
@@ -0,0 +1,30 @@
+package pacMan;
+
+import java.awt.image.BufferedImage;
+
+import pacMan.TyleContainer.Tyle;
+
+/**
+ * Holds one image for every Tyle, indexed by the Tyle's ordinal. Each image is
+ * decoded once by load(), scaled to the board's tyle size and converted to an
+ * image compatible with the screen, so drawing a tyle is a plain 1:1 copy.
+ */
+public class TyleImageCache {
+
+	private static BufferedImage[] tyle_images;
+
+	// Decode and scale every Tyle image. Tyles sharing a file share one image.
+	public static void load() {
+		BufferedImage[] images = new BufferedImage[Tyle.values().length];
+
+		for (Tyle tyle : Tyle.values()) {
+			images[tyle.ordinal()] = Sprites.get(tyle.filename);
+		}
+		tyle_images = images;
+	}
+
+	public static BufferedImage get(Tyle tyle) {
+		return tyle_images[tyle.ordinal()];
+	}
+
+}